@@ -25,6 +25,8 @@ public class Covid19InfectedTrackingAppApplication {
         final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(3);
         executor.setMaxPoolSize(5);
+        // Refreshes are coalesced, so a few queued tasks is plenty and a full queue means something is stuck
+        executor.setQueueCapacity(10);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setThreadNamePrefix("Async-");
         return executor;
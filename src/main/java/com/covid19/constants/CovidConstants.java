@@ -18,4 +18,12 @@ public class CovidConstants {
 
     public static final String LONGITUDE = "Long";
 
+    /**
+     * Daily counts are read from this column onwards, each column being one day named as per
+     * {@link #DAY_COLUMN_FORMAT}.
+     */
+    public static final int INDEX_OF_FIRST_DAY_COLUMN = 5;
+
+    public static final String DAY_COLUMN_FORMAT = "M/d/yy";
+
 }
@@ -1,20 +1,30 @@
 package com.covid19.controllers;
 
 import java.io.IOException;
-import java.util.Comparator;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.covid19.models.LocationStats;
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.LocationSortKey;
 import com.covid19.models.PatientType;
+import com.covid19.models.PatientsCountSummary;
+import com.covid19.models.RegionRollup;
 import com.covid19.services.CovidDataService;
+import com.covid19.services.LeaderboardService;
 
 @Controller
 public class Covid19Controller {
@@ -23,67 +33,100 @@ public class Covid19Controller {
 
     private static final String UNDERSCORE = "_";
 
+    private static final DateTimeFormatter UPDATED_ON_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy HH:mm",
+            Locale.ENGLISH);
+
+    // Locations of the leaderboards of the home page
+    private static final int TOP_SIZE = 10;
+
     @Autowired
     private CovidDataService csvService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     @GetMapping("/")
     public String homePageInfo(final Model uiModel) throws IOException, InterruptedException {
-        // TODO : Maybe use retry on few types of exceptions
-        List<LocationStats> stats = csvService.fetchConfirmedInfected()
-                .parallelStream().sorted().collect(Collectors.toList());
-        fetchAndUpdateDataForUIModel(uiModel, stats, PatientType.INFECTED);
-        stats = csvService.fetchConfirmedDeads();
-        fetchAndUpdateDataForUIModel(uiModel, stats, PatientType.DEAD);
-        stats = csvService.fetchConfirmedRecovered();
-        fetchAndUpdateDataForUIModel(uiModel, stats, PatientType.RECOVERED);
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        for (final PatientType patientType : PatientType.values())
+            fetchAndUpdateDataForUIModel(uiModel, snapshot, snapshot.getLocations(), patientType);
+        uiModel.addAttribute("top_infected",
+                leaderboardService.getTop(PatientType.INFECTED, LocationSortKey.LATEST_COUNT, TOP_SIZE).getEntries());
+        uiModel.addAttribute("top_growing",
+                leaderboardService.getTop(PatientType.INFECTED, LocationSortKey.DAILY_DELTA, TOP_SIZE).getEntries());
+        addFreshnessToUIModel(uiModel);
         return "home";
     }
 
     @GetMapping("/infected")
-    public String infectedInfo(final Model uiModel) throws IOException, InterruptedException {
-        // TODO : Maybe use retry on few types of exceptions
-        final List<LocationStats> stats = csvService.fetchConfirmedInfected();
-        fetchAndUpdateDataForUIModel(uiModel, stats
-                .parallelStream()
-                .sorted(
-                        Comparator.comparing(LocationStats::getInfectedPatientsStats))
-                .collect(Collectors.toList()), PatientType.INFECTED);
-        // return PatientType.INFECTED.name();
-        // System.out.println(PatientType.INFECTED);
-        // System.out.println(PatientType.INFECTED.name());
-        // System.out.println(PatientType.INFECTED.getValue());
-        // System.out.println(PatientType.INFECTED.toString());
+    public String infectedInfo(@RequestParam(name = "sort", defaultValue = "LATEST_COUNT") final LocationSortKey sortKey,
+            final Model uiModel) throws IOException, InterruptedException {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        fetchAndUpdateDataForUIModel(uiModel, snapshot, snapshot.getLocations(PatientType.INFECTED, sortKey),
+                PatientType.INFECTED);
+        uiModel.addAttribute("sort", sortKey);
+        addFreshnessToUIModel(uiModel);
         return PatientType.INFECTED.getValue();
     }
 
     @GetMapping("/dead")
-    public String deathInfo(final Model uiModel) throws IOException, InterruptedException {
-        // TODO : Maybe use retry on few types of exceptions
-        final List<LocationStats> stats = csvService.fetchConfirmedDeads();
-
-        fetchAndUpdateDataForUIModel(uiModel, stats.parallelStream()
-                .sorted(Comparator.comparing(LocationStats::getDeadPatientsStats)).collect(Collectors.toList()),
+    public String deathInfo(@RequestParam(name = "sort", defaultValue = "LATEST_COUNT") final LocationSortKey sortKey,
+            final Model uiModel) throws IOException, InterruptedException {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        fetchAndUpdateDataForUIModel(uiModel, snapshot, snapshot.getLocations(PatientType.DEAD, sortKey),
                 PatientType.DEAD);
+        uiModel.addAttribute("sort", sortKey);
+        addFreshnessToUIModel(uiModel);
         return PatientType.DEAD.getValue();
     }
 
     @GetMapping("/recovered")
-    public String recoveredInfo(final Model uiModel) throws IOException, InterruptedException {
-        // TODO : Maybe use retry on few types of exceptions
-        final List<LocationStats> stats = csvService.fetchConfirmedRecovered();
-        fetchAndUpdateDataForUIModel(uiModel, stats.parallelStream()
-                .sorted(Comparator.comparing(LocationStats::getRecoveredPatientsStats)).collect(Collectors.toList()),
+    public String recoveredInfo(@RequestParam(name = "sort", defaultValue = "LATEST_COUNT") final LocationSortKey sortKey,
+            final Model uiModel) throws IOException, InterruptedException {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        fetchAndUpdateDataForUIModel(uiModel, snapshot, snapshot.getLocations(PatientType.RECOVERED, sortKey),
                 PatientType.RECOVERED);
+        uiModel.addAttribute("sort", sortKey);
+        addFreshnessToUIModel(uiModel);
         return PatientType.RECOVERED.getValue();
     }
 
-    private void fetchAndUpdateDataForUIModel(final Model uiModel, final List<LocationStats> stats,
-            final PatientType patientType) {
-        final int currentCount = csvService.getCurrentCountByPatientType(stats, patientType);
-        final int newCount = csvService.getNewCountByPatientType(stats, patientType);
+    @GetMapping("/region/{name}")
+    public String regionInfo(@PathVariable("name") final String region, final Model uiModel) {
+        final RegionRollup rollup = csvService.getSnapshot().getRegionRollup(region);
+        if (rollup == null)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown region " + region);
+        uiModel.addAttribute("region", rollup.getRegion());
+        uiModel.addAttribute("region_stats", rollup.getLocations());
+        for (final PatientType patientType : PatientType.values()) {
+            final PatientsCountSummary counts = rollup.getSummary().getCounts(patientType);
+            uiModel.addAttribute(patientType + UNDERSCORE + "current_count", counts.getCurrentCount());
+            uiModel.addAttribute(patientType + UNDERSCORE + "new_count", counts.getNewCount());
+            uiModel.addAttribute(patientType + UNDERSCORE + "updated_on",
+                    formatUpdatedOn(csvService.getIngestedOn(patientType)));
+        }
+        addFreshnessToUIModel(uiModel);
+        return "region";
+    }
+
+    private void fetchAndUpdateDataForUIModel(final Model uiModel, final DatasetSnapshot snapshot,
+            final List<LocationSnapshot> stats, final PatientType patientType) {
+        final PatientsCountSummary totals = snapshot.getSummary().getTotals(patientType);
         uiModel.addAttribute(patientType + UNDERSCORE + "stats", stats);
-        uiModel.addAttribute(patientType + UNDERSCORE + "current_count", currentCount);
-        uiModel.addAttribute(patientType + UNDERSCORE + "new_count", newCount);
+        uiModel.addAttribute(patientType + UNDERSCORE + "current_count", totals.getCurrentCount());
+        uiModel.addAttribute(patientType + UNDERSCORE + "new_count", totals.getNewCount());
+        uiModel.addAttribute(patientType + UNDERSCORE + "updated_on",
+                formatUpdatedOn(csvService.getIngestedOn(patientType)));
+    }
+
+    private void addFreshnessToUIModel(final Model uiModel) {
+        uiModel.addAttribute("data_stale", csvService.isStale());
+        uiModel.addAttribute("data_refreshing", csvService.isRefreshing());
+    }
+
+    // Absolute rather than relative, so that a rendered page stays valid until the data changes
+    private static String formatUpdatedOn(final LocalDateTime updatedOn) {
+        return updatedOn == null ? null : UPDATED_ON_FORMAT.format(updatedOn);
     }
 
 }
@@ -0,0 +1,230 @@
+package com.covid19.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.covid19.models.DailyTotals;
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.DatasetSummary;
+import com.covid19.models.DayCounts;
+import com.covid19.models.Leaderboard;
+import com.covid19.models.LocationCounts;
+import com.covid19.models.LocationPage;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.LocationTimeSeries;
+import com.covid19.models.MovingAverageSeries;
+import com.covid19.models.NearbyLocation;
+import com.covid19.models.PatientType;
+import com.covid19.models.RegionDetails;
+import com.covid19.models.RegionRollup;
+import com.covid19.services.CovidDataService;
+import com.covid19.services.DatasetExportService;
+import com.covid19.services.ExportFormat;
+import com.covid19.services.GeoQueryService;
+import com.covid19.services.LeaderboardService;
+import com.covid19.services.LocationQueryService;
+import com.covid19.services.TimeSeriesQueryService;
+
+@RestController
+@RequestMapping("/api/v1")
+public class Covid19RestController {
+
+    @Autowired
+    private CovidDataService csvService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GeoQueryService geoQueryService;
+
+    @Autowired
+    private LocationQueryService locationQueryService;
+
+    @Autowired
+    private DatasetExportService exportService;
+
+    @Autowired
+    private TimeSeriesQueryService timeSeriesQueryService;
+
+    /**
+     * Totals of all locations and subtotals per region, along with the version of the data they were computed from.
+     */
+    @GetMapping("/summary")
+    public DatasetSummary summary() {
+        return csvService.getSnapshot().getSummary();
+    }
+
+    /**
+     * Daily counts of the series summed over all locations, e.g. /api/v1/totals/daily?type=DEAD
+     */
+    @GetMapping("/totals/daily")
+    public ResponseEntity<DailyTotals> dailyTotals(
+            @RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType) {
+        final DailyTotals totals = csvService.getSnapshot().getDailyTotals(patientType);
+        return totals == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(totals);
+    }
+
+    /**
+     * Totals and daily history of a region summed over its locations, along with the counts of each location.
+     */
+    @GetMapping("/regions/{region}")
+    public ResponseEntity<RegionDetails> region(@PathVariable("region") final String region) {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        final RegionRollup rollup = snapshot.getRegionRollup(region);
+        return rollup == null ? ResponseEntity.notFound().build()
+                : ResponseEntity.ok(RegionDetails.of(snapshot, rollup));
+    }
+
+    /**
+     * One page of locations with their latest counts, e.g.
+     * /api/v1/locations?type=DEAD&amp;sort=DAILY_DELTA&amp;region=Canada&amp;limit=20, then the same with the
+     * returned cursor for the next page.
+     */
+    @GetMapping("/locations")
+    public LocationPage locations(@RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType,
+            @RequestParam(name = "sort", defaultValue = "LATEST_COUNT") final LocationSortKey sortKey,
+            @RequestParam(name = "region", required = false) final String region,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") final int limit) {
+        return locationQueryService.getPage(patientType, sortKey, region, cursor, limit);
+    }
+
+    /**
+     * Top locations by a metric, e.g. /api/v1/top?type=DEAD&amp;metric=DAILY_DELTA&amp;n=10
+     */
+    @GetMapping("/top")
+    public Leaderboard top(@RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType,
+            @RequestParam(name = "metric", defaultValue = "LATEST_COUNT") final LocationSortKey metric,
+            @RequestParam(name = "n", defaultValue = "10") final int size) {
+        return leaderboardService.getTop(patientType, metric, size);
+    }
+
+    /**
+     * Locations within a box, e.g. /api/v1/geo/bbox?south=35&amp;west=-10&amp;north=60&amp;east=30, a west border east
+     * of the east one spanning the antimeridian.
+     */
+    @GetMapping("/geo/bbox")
+    public List<LocationCounts> locationsWithin(@RequestParam(name = "south") final double south,
+            @RequestParam(name = "west") final double west, @RequestParam(name = "north") final double north,
+            @RequestParam(name = "east") final double east) {
+        return geoQueryService.getWithin(south, west, north, east);
+    }
+
+    /**
+     * Locations nearest to a point, e.g. /api/v1/geo/nearest?lat=48.85&amp;lon=2.35&amp;k=5
+     */
+    @GetMapping("/geo/nearest")
+    public List<NearbyLocation> nearestLocations(@RequestParam(name = "lat") final double latitude,
+            @RequestParam(name = "lon") final double longitude,
+            @RequestParam(name = "k", defaultValue = "10") final int count) {
+        return geoQueryService.getNearest(latitude, longitude, count);
+    }
+
+    /**
+     * @param state empty or missing for countries reported as a whole
+     */
+    @GetMapping("/locations/lookup")
+    public ResponseEntity<LocationCounts> location(@RequestParam(name = "region") final String region,
+            @RequestParam(name = "state", defaultValue = "") final String state) {
+        final LocationCounts location = locationQueryService.getLocation(state, region);
+        return location == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(location);
+    }
+
+    /**
+     * Daily counts of one location, e.g. /api/v1/timeseries/location?region=Canada&amp;state=Quebec&amp;type=DEAD
+     * &amp;from=2020-03-01&amp;to=2020-03-31, the range being clamped to the days of the series.
+     */
+    @GetMapping("/timeseries/location")
+    public ResponseEntity<LocationTimeSeries> locationTimeSeries(
+            @RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType,
+            @RequestParam(name = "region") final String region,
+            @RequestParam(name = "state", defaultValue = "") final String state,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+        final LocationTimeSeries series = timeSeriesQueryService.getLocationSeries(patientType, state, region, from,
+                to);
+        return series == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(series);
+    }
+
+    /**
+     * Moving average of the new cases of one location, e.g. /api/v1/timeseries/location/moving-average?region=Italy
+     * &amp;window=14, the first average being of the day the window first fits in the series.
+     */
+    @GetMapping("/timeseries/location/moving-average")
+    public ResponseEntity<MovingAverageSeries> locationMovingAverages(
+            @RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType,
+            @RequestParam(name = "region") final String region,
+            @RequestParam(name = "state", defaultValue = "") final String state,
+            @RequestParam(name = "window", defaultValue = "7") final int window) {
+        final MovingAverageSeries series = timeSeriesQueryService.getMovingAverages(patientType, state, region,
+                window);
+        return series == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(series);
+    }
+
+    /**
+     * Counts of all locations on one day, e.g. /api/v1/timeseries/date/2020-04-01?type=RECOVERED
+     */
+    @GetMapping("/timeseries/date/{day}")
+    public ResponseEntity<DayCounts> dayCounts(
+            @PathVariable("day") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate day,
+            @RequestParam(name = "type", defaultValue = "INFECTED") final PatientType patientType) {
+        final DayCounts counts = timeSeriesQueryService.getCountsOn(patientType, day);
+        return counts == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(counts);
+    }
+
+    /**
+     * Full daily history of the given series, all series by default, streamed from the snapshot current when the
+     * request arrived, e.g. /api/v1/export?format=NDJSON&amp;type=DEAD&amp;gzip=true
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "CSV") final ExportFormat format,
+            @RequestParam(name = "type", required = false) final List<PatientType> patientTypes,
+            @RequestParam(name = "gzip", defaultValue = "false") final boolean gzip) {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        final List<PatientType> exportedTypes = patientTypes == null || patientTypes.isEmpty()
+                ? List.of(PatientType.values())
+                : patientTypes;
+        final String fileName = "covid19-v" + snapshot.getVersion() + "." + format.getExtension()
+                + (gzip ? ".gz" : "");
+        final StreamingResponseBody body = out -> {
+            if (gzip) {
+                final GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                exportService.export(snapshot, exportedTypes, format, gzipOut);
+                gzipOut.finish();
+            } else
+                exportService.export(snapshot, exportedTypes, format, out);
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(final IllegalArgumentException e) {
+        return e.getMessage();
+    }
+
+}
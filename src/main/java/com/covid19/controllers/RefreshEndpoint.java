@@ -0,0 +1,34 @@
+package com.covid19.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.covid19.services.helpers.RefreshCoordinator;
+import com.covid19.services.helpers.RefreshStatus;
+
+/**
+ * Actuator endpoint at /actuator/refresh showing whether a refresh is running and how the last one went. A POST
+ * triggers a refresh, joining the one in flight if any.
+ */
+@Component
+@Endpoint(id = "refresh")
+public class RefreshEndpoint {
+
+    @Autowired
+    private RefreshCoordinator refreshCoordinator;
+
+    @ReadOperation
+    public RefreshStatus status() {
+        return refreshCoordinator.getStatus();
+    }
+
+    @WriteOperation
+    public RefreshStatus trigger() {
+        refreshCoordinator.triggerRefresh();
+        return refreshCoordinator.getStatus();
+    }
+
+}
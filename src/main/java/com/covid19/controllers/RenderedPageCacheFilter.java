@@ -0,0 +1,237 @@
+package com.covid19.controllers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+import com.covid19.services.CovidDataService;
+import com.covid19.services.DatasetSnapshotService;
+
+/**
+ * Keeps the last rendering of each HTML page, keyed by the data it shows: snapshot version, staleness and ingest
+ * times. Pages are rendered again only when that data changes, and served with a strong ETag and Last-Modified so that
+ * repeat loads get a 304 without a body.
+ */
+@Component
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenderedPageCacheFilter.class);
+
+    private static final Set<String> CACHED_PATHS = Set.of("/", "/infected", "/dead", "/recovered");
+
+    // Pages taking a sort order, one entry per order
+    private static final Set<String> SORTED_PATHS = Set.of("/infected", "/dead", "/recovered");
+
+    // Pages of each region, as many entries as regions
+    private static final String CACHED_PATH_PREFIX = "/region/";
+
+    private static final String GZIP = "gzip";
+
+    private static final String SORT_PARAMETER = "sort";
+
+    private static final LocationSortKey DEFAULT_SORT_KEY = LocationSortKey.LATEST_COUNT;
+
+    // One entry per path and sort order, dropped when the data changes
+    private final Map<String, RenderedPage> pagesByPath = new ConcurrentHashMap<>();
+
+    @Value("${covid.page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private CovidDataService csvService;
+
+    @Autowired
+    private DatasetSnapshotService snapshotService;
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !enabled || !HttpMethod.GET.matches(request.getMethod())
+                || !CACHED_PATHS.contains(request.getServletPath())
+                        && !request.getServletPath().startsWith(CACHED_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        // Cold start is left to the controller, so that requests wait for data only once
+        if (snapshotService.getSnapshot().isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String path = pagePath(request);
+        // Left to the controller to reject
+        if (path == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        final String key = pageKey(snapshot);
+        final RenderedPage page = pagesByPath.get(path);
+        if (page != null && page.key.equals(key)) {
+            serve(page, request, response);
+            return;
+        }
+        final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        final RenderedPage rendered = new RenderedPage(snapshot.getVersion(), key, responseWrapper.getContentType(),
+                responseWrapper.getContentAsByteArray());
+        // Pages of older snapshots would only be replaced when requested again
+        pagesByPath.values().removeIf(cached -> cached.version < rendered.version);
+        pagesByPath.put(path, rendered);
+        LOGGER.debug("Rendered {} for {}", path, key);
+        serve(rendered, request, response);
+    }
+
+    /**
+     * @return path keyed on the sort order as the controller resolves it, so that requests can only add as many
+     *         entries as there are orders, null for an invalid order
+     */
+    private static String pagePath(final HttpServletRequest request) {
+        final String path = request.getServletPath();
+        if (!SORTED_PATHS.contains(path))
+            return path;
+        final String sort = request.getParameter(SORT_PARAMETER);
+        if (sort == null || sort.isBlank())
+            return path + "?sort=" + DEFAULT_SORT_KEY;
+        try {
+            return path + "?sort=" + LocationSortKey.valueOf(sort.trim());
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Everything rendered pages depend on besides the snapshot content
+    private String pageKey(final DatasetSnapshot snapshot) {
+        final StringBuilder key = new StringBuilder();
+        key.append(snapshot.getVersion());
+        key.append(csvService.isStale() ? ":stale" : ":fresh");
+        key.append(csvService.isRefreshing() ? ":refreshing" : ":idle");
+        for (final PatientType patientType : PatientType.values())
+            key.append(':').append(csvService.getIngestedOn(patientType));
+        return key.toString();
+    }
+
+    private static void serve(final RenderedPage page, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        final boolean gzip = acceptsGzip(request);
+        final String eTag = gzip ? page.gzipETag : page.eTag;
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, page.renderedOn);
+        // Let browsers keep the page but check it on each load, it is cheap to validate
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (isNotModified(page, eTag, request)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        final byte[] body = gzip ? page.gzipBody : page.body;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(page.contentType);
+        if (gzip)
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLength(body.length);
+        try (OutputStream out = response.getOutputStream()) {
+            out.write(body);
+        }
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        final Enumeration<String> encodings = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (encodings.hasMoreElements())
+            if (encodings.nextElement().contains(GZIP))
+                return true;
+        return false;
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since, as in RFC 7232
+    private static boolean isNotModified(final RenderedPage page, final String eTag,
+            final HttpServletRequest request) {
+        final Enumeration<String> ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch.hasMoreElements()) {
+            while (ifNoneMatch.hasMoreElements())
+                for (final String tag : ifNoneMatch.nextElement().split(","))
+                    if (tag.trim().equals(eTag) || tag.trim().equals("*"))
+                        return true;
+            return false;
+        }
+        final long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= page.renderedOn;
+    }
+
+    private static final class RenderedPage {
+
+        private final long version;
+
+        private final String key;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        private final byte[] gzipBody;
+
+        private final String eTag;
+
+        private final String gzipETag;
+
+        // HTTP dates have a resolution of seconds
+        private final long renderedOn = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+
+        RenderedPage(final long version, final String key, final String contentType, final byte[] body)
+                throws IOException {
+            this.version = version;
+            this.key = key;
+            this.contentType = contentType;
+            this.body = body;
+            gzipBody = gzip(body);
+            // Strong tags, one per representation
+            final String digest = DigestUtils.md5DigestAsHex(body);
+            eTag = '"' + digest + '"';
+            gzipETag = "\"" + digest + "-gzip\"";
+        }
+
+        private static byte[] gzip(final byte[] body) throws IOException {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            return compressed.toByteArray();
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.covid19.models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable series of daily counts, one per day of a time series, backed by a primitive array so that no count is
+ * boxed. Use {@link #asList()} only where a {@link List} is needed, e.g. in templates.
+ */
+public final class DailyCounts {
+
+    private static final DailyCounts EMPTY = new DailyCounts(new int[0], 0);
+
+    private final int[] counts;
+
+    private final int size;
+
+    private DailyCounts(final int[] counts, final int size) {
+        this.counts = counts;
+        this.size = size;
+    }
+
+    public static DailyCounts empty() {
+        return EMPTY;
+    }
+
+    public static DailyCounts of(final int... counts) {
+        return wrap(counts.clone(), counts.length);
+    }
+
+    public static DailyCounts zeros(final int size) {
+        return size == 0 ? EMPTY : new DailyCounts(new int[size], size);
+    }
+
+    /**
+     * Uses the first {@code size} counts of the array without copying it, so the array must not be modified
+     * afterwards.
+     */
+    public static DailyCounts wrap(final int[] counts, final int size) {
+        if (size < 0 || size > counts.length)
+            throw new IllegalArgumentException("Size " + size + " out of array of " + counts.length);
+        return size == 0 ? EMPTY : new DailyCounts(counts, size);
+    }
+
+    public static DailyCounts wrap(final int[] counts) {
+        return wrap(counts, counts.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(final int day) {
+        if (day < 0 || day >= size)
+            throw new IndexOutOfBoundsException("Day " + day + " out of " + size);
+        return counts[day];
+    }
+
+    /**
+     * @return count of the last day, 0 if there is none
+     */
+    public int getLatest() {
+        return size == 0 ? 0 : counts[size - 1];
+    }
+
+    /**
+     * @return count of the day before the last one, 0 if there is none
+     */
+    public int getPrevious() {
+        return size < 2 ? 0 : counts[size - 2];
+    }
+
+    /**
+     * @return new series made of these counts followed by the given ones
+     */
+    public DailyCounts append(final int[] newCounts) {
+        if (newCounts.length == 0)
+            return this;
+        final int[] appended = Arrays.copyOf(counts, size + newCounts.length);
+        System.arraycopy(newCounts, 0, appended, size, newCounts.length);
+        return new DailyCounts(appended, appended.length);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(counts, size);
+    }
+
+    /**
+     * Adds the count of each day to the sum of the same day.
+     *
+     * @param sums at least as long as this series
+     */
+    public void addTo(final int[] sums) {
+        for (int day = 0; day < size; day++)
+            sums[day] += counts[day];
+    }
+
+    /**
+     * Copies the counts into the destination array, from the given index on.
+     */
+    public void copyTo(final int[] destination, final int destinationIndex) {
+        System.arraycopy(counts, 0, destination, destinationIndex, size);
+    }
+
+    /**
+     * @return read only boxed view of the counts
+     */
+    public List<Integer> asList() {
+        return new CountsList();
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int day = 0; day < size; day++)
+            hashCode = 31 * hashCode + counts[day];
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof DailyCounts))
+            return false;
+        final DailyCounts other = (DailyCounts) obj;
+        return Arrays.equals(counts, 0, size, other.counts, 0, other.size);
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+
+    private class CountsList extends AbstractList<Integer> implements RandomAccess {
+
+        @Override
+        public Integer get(final int index) {
+            return DailyCounts.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
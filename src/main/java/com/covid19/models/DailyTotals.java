@@ -0,0 +1,73 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+
+/**
+ * Daily counts of one series summed over all locations, from the first day of the series. Totals are longs like the
+ * ones of {@link DatasetSummary}, so that summing many locations cannot overflow.
+ */
+public final class DailyTotals {
+
+    private final PatientType patientType;
+
+    private final LocalDate firstDay;
+
+    private final long[] totals;
+
+    private DailyTotals(final PatientType patientType, final LocalDate firstDay, final long[] totals) {
+        this.patientType = patientType;
+        this.firstDay = firstDay;
+        this.totals = totals;
+    }
+
+    /**
+     * Sums the columns of the matrix of the same snapshot, so that totals always match the counts served per location.
+     */
+    static DailyTotals of(final LocalDate firstDay, final SeriesMatrix matrix) {
+        return new DailyTotals(matrix.getPatientType(), firstDay, matrix.sumColumns());
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return null if there are no days
+     */
+    public LocalDate getLastDay() {
+        return totals.length == 0 ? null : firstDay.plusDays(totals.length - 1L);
+    }
+
+    /**
+     * @return one total per day, from the first day
+     */
+    public long[] getTotals() {
+        return totals.clone();
+    }
+
+    public int getDayCount() {
+        return totals.length;
+    }
+
+    public long get(final int day) {
+        return totals[day];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DailyTotals [patientType=");
+        builder.append(patientType);
+        builder.append(", firstDay=");
+        builder.append(firstDay);
+        builder.append(", dayCount=");
+        builder.append(totals.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable view of all locations as stored by one refresh. A new snapshot is built after each successful refresh and
+ * replaces the previous one as a whole, so readers never see a refresh half applied and never wait for one.
+ */
+public final class DatasetSnapshot {
+
+    private static final DatasetSnapshot EMPTY = new DatasetSnapshot(0, null, Collections.emptyList(),
+            Collections.emptyMap());
+
+    private final long version;
+
+    private final LocalDateTime createdOn;
+
+    private final List<LocationSnapshot> locations;
+
+    private final Map<PatientType, LocalDate> firstDays;
+
+    private final DatasetSummary summary;
+
+    private final Map<String, RegionRollup> regionRollups;
+
+    // By patient type ordinal, null for series of unknown days
+    private final SeriesMatrix[] seriesMatrices;
+
+    // By patient type ordinal, null for series of unknown days
+    private final DailyTotals[] dailyTotals;
+
+    // Indexes into locations, by patient type ordinal then sort key ordinal
+    private final int[][][] orders;
+
+    private final SpatialIndex spatialIndex;
+
+    private DatasetSnapshot(final long version, final LocalDateTime createdOn, final List<LocationSnapshot> locations,
+            final Map<PatientType, LocalDate> firstDays) {
+        this.version = version;
+        this.createdOn = createdOn;
+        this.locations = locations;
+        this.firstDays = firstDays;
+        summary = DatasetSummary.of(version, createdOn, locations);
+        regionRollups = RegionRollup.of(locations, summary.getRegions());
+        seriesMatrices = new SeriesMatrix[PatientType.values().length];
+        for (final PatientType patientType : PatientType.values())
+            if (firstDays.containsKey(patientType))
+                seriesMatrices[patientType.ordinal()] = SeriesMatrix.of(patientType, firstDays.get(patientType),
+                        locations);
+        dailyTotals = new DailyTotals[PatientType.values().length];
+        for (final PatientType patientType : PatientType.values())
+            if (seriesMatrices[patientType.ordinal()] != null)
+                dailyTotals[patientType.ordinal()] = DailyTotals.of(firstDays.get(patientType),
+                        seriesMatrices[patientType.ordinal()]);
+        orders = buildOrders(locations);
+        spatialIndex = SpatialIndex.of(locations);
+    }
+
+    private static int[][][] buildOrders(final List<LocationSnapshot> locations) {
+        final Integer[] nameOrder = new Integer[locations.size()];
+        for (int i = 0; i < nameOrder.length; i++)
+            nameOrder[i] = i;
+        final int[][][] orders = new int[PatientType.values().length][LocationSortKey.values().length][];
+        for (final PatientType patientType : PatientType.values())
+            for (final LocationSortKey sortKey : LocationSortKey.values())
+                orders[patientType.ordinal()][sortKey.ordinal()] = sortKey == LocationSortKey.NAME
+                        ? toIntArray(nameOrder)
+                        : sortDescending(locations, nameOrder, location -> sortKey.getValue(location, patientType));
+        return orders;
+    }
+
+    // Stable, so ties stay in name order
+    private static int[] sortDescending(final List<LocationSnapshot> locations, final Integer[] nameOrder,
+            final ToDoubleFunction<LocationSnapshot> metric) {
+        final double[] values = new double[locations.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = metric.applyAsDouble(locations.get(i));
+        final Integer[] order = nameOrder.clone();
+        Arrays.sort(order, (first, second) -> Double.compare(values[second], values[first]));
+        return toIntArray(order);
+    }
+
+    private static int[] toIntArray(final Integer[] order) {
+        final int[] indexes = new int[order.length];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = order[i];
+        return indexes;
+    }
+
+    public static DatasetSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param version increases with every snapshot, to tell snapshots apart
+     */
+    public static DatasetSnapshot of(final long version, final List<LocationStats> locationStats) {
+        return of(version, locationStats, Collections.emptyMap());
+    }
+
+    /**
+     * @param firstDays day of the first count of each series, missing for series whose days are unknown
+     */
+    public static DatasetSnapshot of(final long version, final List<LocationStats> locationStats,
+            final Map<PatientType, LocalDate> firstDays) {
+        final List<LocationSnapshot> locations = new ArrayList<>(locationStats.size());
+        for (final LocationStats stats : locationStats)
+            locations.add(LocationSnapshot.of(stats));
+        locations.sort(Comparator.comparing(LocationSnapshot::getKey));
+        final Map<PatientType, LocalDate> days = new EnumMap<>(PatientType.class);
+        days.putAll(firstDays);
+        return new DatasetSnapshot(version, LocalDateTime.now(), Collections.unmodifiableList(locations),
+                Collections.unmodifiableMap(days));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return when the snapshot was built, null for the empty snapshot
+     */
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    /**
+     * @return all locations, ordered by region then state
+     */
+    public List<LocationSnapshot> getLocations() {
+        return locations;
+    }
+
+    /**
+     * @return day of the first count of the series, i.e. of index 0 in past counts, null if unknown
+     */
+    public LocalDate getFirstDay(final PatientType patientType) {
+        return firstDays.get(patientType);
+    }
+
+    /**
+     * @return null if the snapshot has no such location
+     */
+    public LocationSnapshot getLocation(final LocationKey key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : locations.get(index);
+    }
+
+    /**
+     * @return index of the location in {@link #getLocations()}, negative if the snapshot has no such location
+     */
+    public int indexOf(final LocationKey key) {
+        return Collections.binarySearch(locations, null, (location, ignored) -> location.getKey().compareTo(key));
+    }
+
+    /**
+     * @return daily counts of the series summed over all locations, null if the days of the series are unknown
+     */
+    public DailyTotals getDailyTotals(final PatientType patientType) {
+        return dailyTotals[patientType.ordinal()];
+    }
+
+    /**
+     * @return null if the snapshot has no such region
+     */
+    public RegionRollup getRegionRollup(final String region) {
+        return regionRollups.get(region);
+    }
+
+    /**
+     * @return rollups of all regions, in region order
+     */
+    public Collection<RegionRollup> getRegionRollups() {
+        return regionRollups.values();
+    }
+
+    /**
+     * @return daily counts of all locations by day, null if the days of the series are unknown
+     */
+    public SeriesMatrix getSeriesMatrix(final PatientType patientType) {
+        return seriesMatrices[patientType.ordinal()];
+    }
+
+    /**
+     * @return all locations in the given order, computed when the snapshot was built
+     */
+    public List<LocationSnapshot> getLocations(final PatientType patientType, final LocationSortKey sortKey) {
+        return new OrderedLocations(locations, orders[patientType.ordinal()][sortKey.ordinal()]);
+    }
+
+    /**
+     * @return index of the locations whose coordinates are known, its results being indexes into
+     *         {@link #getLocations()}
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public DatasetSummary getSummary() {
+        return summary;
+    }
+
+    public boolean isEmpty() {
+        return locations.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DatasetSnapshot [version=");
+        builder.append(version);
+        builder.append(", createdOn=");
+        builder.append(createdOn);
+        builder.append(", locationCount=");
+        builder.append(locations.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+    // Read-only view of the locations through an index array
+    private static final class OrderedLocations extends AbstractList<LocationSnapshot> implements RandomAccess {
+
+        private final List<LocationSnapshot> locations;
+
+        private final int[] order;
+
+        OrderedLocations(final List<LocationSnapshot> locations, final int[] order) {
+            this.locations = locations;
+            this.order = order;
+        }
+
+        @Override
+        public LocationSnapshot get(final int index) {
+            return locations.get(order[index]);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.covid19.models;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Headline counts of a {@link DatasetSnapshot}, computed once when the snapshot is built: totals of all locations and
+ * subtotals per region, for each series.
+ */
+public final class DatasetSummary {
+
+    private final long version;
+
+    private final LocalDateTime createdOn;
+
+    private final int locationCount;
+
+    private final Map<PatientType, PatientsCountSummary> totalsByPatientType;
+
+    private final List<RegionSummary> regions;
+
+    private DatasetSummary(final long version, final LocalDateTime createdOn, final int locationCount,
+            final Map<PatientType, PatientsCountSummary> totalsByPatientType, final List<RegionSummary> regions) {
+        this.version = version;
+        this.createdOn = createdOn;
+        this.locationCount = locationCount;
+        this.totalsByPatientType = Collections.unmodifiableMap(totalsByPatientType);
+        this.regions = Collections.unmodifiableList(regions);
+    }
+
+    /**
+     * @param locations ordered by region, as in {@link DatasetSnapshot#getLocations()}
+     */
+    static DatasetSummary of(final long version, final LocalDateTime createdOn,
+            final List<LocationSnapshot> locations) {
+        final PatientType[] patientTypes = PatientType.values();
+        // Current and new counts per patient type, of all locations and of the region being summed
+        final long[][] totals = new long[patientTypes.length][2];
+        final long[][] regionTotals = new long[patientTypes.length][2];
+        final List<RegionSummary> regions = new ArrayList<>();
+        String region = null;
+        int regionLocationCount = 0;
+        for (final LocationSnapshot location : locations) {
+            if (regionLocationCount > 0 && !Objects.equals(region, location.getRegion())) {
+                regions.add(new RegionSummary(region, regionLocationCount, toSummaries(regionTotals)));
+                for (final long[] counts : regionTotals)
+                    Arrays.fill(counts, 0);
+                regionLocationCount = 0;
+            }
+            region = location.getRegion();
+            regionLocationCount++;
+            for (final PatientType patientType : patientTypes) {
+                final PatientsStatsSnapshot patientsStats = location.getPatientsStats(patientType);
+                final int newCount = patientsStats.getLatestCount() - patientsStats.getPastCounts().getPrevious();
+                totals[patientType.ordinal()][0] += patientsStats.getLatestCount();
+                totals[patientType.ordinal()][1] += newCount;
+                regionTotals[patientType.ordinal()][0] += patientsStats.getLatestCount();
+                regionTotals[patientType.ordinal()][1] += newCount;
+            }
+        }
+        if (regionLocationCount > 0)
+            regions.add(new RegionSummary(region, regionLocationCount, toSummaries(regionTotals)));
+        return new DatasetSummary(version, createdOn, locations.size(), toSummaries(totals), regions);
+    }
+
+    private static Map<PatientType, PatientsCountSummary> toSummaries(final long[][] counts) {
+        final Map<PatientType, PatientsCountSummary> summaries = new EnumMap<>(PatientType.class);
+        for (final PatientType patientType : PatientType.values())
+            summaries.put(patientType,
+                    new PatientsCountSummary(counts[patientType.ordinal()][0], counts[patientType.ordinal()][1]));
+        return summaries;
+    }
+
+    /**
+     * @return version of the snapshot summed up
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public int getLocationCount() {
+        return locationCount;
+    }
+
+    public Map<PatientType, PatientsCountSummary> getTotalsByPatientType() {
+        return totalsByPatientType;
+    }
+
+    public PatientsCountSummary getTotals(final PatientType patientType) {
+        return totalsByPatientType.get(patientType);
+    }
+
+    /**
+     * @return subtotals ordered by region
+     */
+    public List<RegionSummary> getRegions() {
+        return regions;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DatasetSummary [version=");
+        builder.append(version);
+        builder.append(", locationCount=");
+        builder.append(locationCount);
+        builder.append(", regionCount=");
+        builder.append(regions.size());
+        builder.append(", totalsByPatientType=");
+        builder.append(totalsByPatientType);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts of one series for all locations on one day, as served by the REST API.
+ */
+public final class DayCounts {
+
+    private final LocalDate day;
+
+    private final PatientType patientType;
+
+    private final List<LocationCount> locations;
+
+    public DayCounts(final LocalDate day, final PatientType patientType, final List<LocationCount> locations) {
+        this.day = day;
+        this.patientType = patientType;
+        this.locations = Collections.unmodifiableList(locations);
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    /**
+     * @return ordered by region then state
+     */
+    public List<LocationCount> getLocations() {
+        return locations;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DayCounts [day=");
+        builder.append(day);
+        builder.append(", patientType=");
+        builder.append(patientType);
+        builder.append(", locationCount=");
+        builder.append(locations.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
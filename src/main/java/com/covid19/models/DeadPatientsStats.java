@@ -1,9 +1,6 @@
 package com.covid19.models;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -11,9 +8,10 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.Table;
 
-import com.covid19.repositories.converters.StringListConverter;
+import com.covid19.repositories.converters.DeltaVarintCountsConverter;
 
 @Entity
 @Table(name = "dead_patients_stats")
@@ -27,11 +25,13 @@ public class DeadPatientsStats implements PatientsStats, Comparable<DeadPatients
     private int latestCount;
 
     /**
-     * This stores dead patients count from previous days as a comma separated String in DB which is transformed and used as List in service.
+     * Dead patients counts of previous days as a {@link DailyCounts}, backed by a primitive int array, stored in DB as
+     * delta encoded varints by {@link DeltaVarintCountsConverter}.
      */
-    @Column(name = "death_count_history", length = 10000)
-    @Convert(converter = StringListConverter.class)
-    private List<Integer> pastCounts;
+    @Lob
+    @Column(name = "death_count_history_bin")
+    @Convert(converter = DeltaVarintCountsConverter.class)
+    private DailyCounts pastCounts;
 
     @Column(name = "UpdatedOn")
     private LocalDateTime updatedOn;
@@ -39,6 +39,7 @@ public class DeadPatientsStats implements PatientsStats, Comparable<DeadPatients
     @Column(name = "Diff")
     private int differenceSincePreviousDay;
 
+    @Override
     public int getId() {
         return id;
     }
@@ -54,12 +55,12 @@ public class DeadPatientsStats implements PatientsStats, Comparable<DeadPatients
     }
 
     @Override
-    public List<Integer> getPastCounts() {
+    public DailyCounts getPastCounts() {
         return pastCounts;
     }
 
     @Override
-    public void setPastCounts(final List<Integer> pastCounts) {
+    public void setPastCounts(final DailyCounts pastCounts) {
         this.pastCounts = pastCounts;
     }
 
@@ -112,7 +113,7 @@ public class DeadPatientsStats implements PatientsStats, Comparable<DeadPatients
 
     public DeadPatientsStats initialiseToMatchForEmptyDbRow(final int lengthOfPreviousCounts) {
         latestCount = 0;
-        pastCounts = new ArrayList<>(Collections.nCopies(lengthOfPreviousCounts, 0));
+        pastCounts = DailyCounts.zeros(lengthOfPreviousCounts);
         updatedOn = LocalDateTime.now();
         differenceSincePreviousDay = 0;
         return this;
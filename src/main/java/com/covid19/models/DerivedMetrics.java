@@ -0,0 +1,108 @@
+package com.covid19.models;
+
+/**
+ * Indicators of how fast a series grows at a location, derived from its latest days. Counts being cumulative, the new
+ * cases of any window are the difference of its two ends, so each indicator costs O(1) whatever the length of the
+ * history.
+ */
+public final class DerivedMetrics {
+
+    static final DerivedMetrics NONE = new DerivedMetrics(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+
+    private static final double LN_2 = Math.log(2);
+
+    private final double movingAverage7;
+
+    private final double movingAverage14;
+
+    private final double weeklyGrowth;
+
+    private final double doublingTime;
+
+    private DerivedMetrics(final double movingAverage7, final double movingAverage14, final double weeklyGrowth,
+            final double doublingTime) {
+        this.movingAverage7 = movingAverage7;
+        this.movingAverage14 = movingAverage14;
+        this.weeklyGrowth = weeklyGrowth;
+        this.doublingTime = doublingTime;
+    }
+
+    static DerivedMetrics of(final DailyCounts counts) {
+        final int latestDay = counts.size() - 1;
+        if (latestDay < 7)
+            return NONE;
+        final int latest = counts.get(latestDay);
+        final int weekAgo = counts.get(latestDay - 7);
+        final int newThisWeek = latest - weekAgo;
+        final int newPreviousWeek = latestDay < 14 ? -1 : weekAgo - counts.get(latestDay - 14);
+        return new DerivedMetrics(newThisWeek / 7d,
+                latestDay < 14 ? Double.NaN : (latest - counts.get(latestDay - 14)) / 14d,
+                newPreviousWeek > 0 ? (double) newThisWeek / newPreviousWeek - 1 : Double.NaN,
+                weekAgo > 0 && latest > weekAgo ? 7 * LN_2 / Math.log((double) latest / weekAgo) : Double.NaN);
+    }
+
+    /**
+     * Moving average of the new cases of each day, sliding the window one day at a time.
+     *
+     * @return one average per day, from the day the window first fits in the counts
+     */
+    public static double[] movingAverages(final DailyCounts counts, final int window) {
+        if (window < 1)
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        if (counts.size() <= window)
+            return new double[0];
+        final double[] averages = new double[counts.size() - window];
+        for (int day = window; day < counts.size(); day++)
+            averages[day - window] = (counts.get(day) - counts.get(day - window)) / (double) window;
+        return averages;
+    }
+
+    /**
+     * @return average of the new cases of the last 7 days, null if the series has fewer days
+     */
+    public Double getMovingAverage7() {
+        return toNullable(movingAverage7);
+    }
+
+    /**
+     * @return average of the new cases of the last 14 days, null if the series has fewer days
+     */
+    public Double getMovingAverage14() {
+        return toNullable(movingAverage14);
+    }
+
+    /**
+     * @return percentage by which new cases of the last 7 days exceed those of the 7 days before, null if there were
+     *         none before
+     */
+    public Double getWeeklyGrowthPercent() {
+        return toNullable(weeklyGrowth * 100);
+    }
+
+    /**
+     * @return days the count takes to double at the growth rate of the last 7 days, null if it did not grow
+     */
+    public Double getDoublingTime() {
+        return toNullable(doublingTime);
+    }
+
+    private static Double toNullable(final double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("DerivedMetrics [movingAverage7=");
+        builder.append(movingAverage7);
+        builder.append(", movingAverage14=");
+        builder.append(movingAverage14);
+        builder.append(", weeklyGrowth=");
+        builder.append(weeklyGrowth);
+        builder.append(", doublingTime=");
+        builder.append(doublingTime);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.covid19.models;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -9,9 +8,10 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.Table;
 
-import com.covid19.repositories.converters.StringListConverter;
+import com.covid19.repositories.converters.DeltaVarintCountsConverter;
 
 @Entity
 @Table(name = "infected_patients_stats")
@@ -24,9 +24,14 @@ public class InfectedPatientsStats implements PatientsStats, Comparable<Infected
     @Column(name = "latest_infected_count")
     private int latestCount;
 
-    @Column(name = "infected_count_history", length = 10000)
-    @Convert(converter = StringListConverter.class)
-    private List<Integer> pastCounts;
+    /**
+     * Infected counts of previous days as a {@link DailyCounts}, backed by a primitive int array, stored in DB as
+     * delta encoded varints by {@link DeltaVarintCountsConverter}.
+     */
+    @Lob
+    @Column(name = "infected_count_history_bin")
+    @Convert(converter = DeltaVarintCountsConverter.class)
+    private DailyCounts pastCounts;
 
     @Column(name = "UpdatedOn")
     private LocalDateTime updatedOn;
@@ -34,6 +39,7 @@ public class InfectedPatientsStats implements PatientsStats, Comparable<Infected
     @Column(name = "Diff")
     private int differenceSincePreviousDay;
 
+    @Override
     public int getId() {
         return id;
     }
@@ -49,12 +55,12 @@ public class InfectedPatientsStats implements PatientsStats, Comparable<Infected
     }
 
     @Override
-    public List<Integer> getPastCounts() {
+    public DailyCounts getPastCounts() {
         return pastCounts;
     }
 
     @Override
-    public void setPastCounts(final List<Integer> pastCounts) {
+    public void setPastCounts(final DailyCounts pastCounts) {
         this.pastCounts = pastCounts;
     }
 
@@ -104,4 +110,12 @@ public class InfectedPatientsStats implements PatientsStats, Comparable<Infected
             return 1;
         return Integer.compare(otherPatient.latestCount, latestCount);
     }
+
+    public InfectedPatientsStats initialiseToMatchForEmptyDbRow(final int lengthOfPreviousCounts) {
+        latestCount = 0;
+        pastCounts = DailyCounts.zeros(lengthOfPreviousCounts);
+        updatedOn = LocalDateTime.now();
+        differenceSincePreviousDay = 0;
+        return this;
+    }
 }
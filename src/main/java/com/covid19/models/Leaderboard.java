@@ -0,0 +1,64 @@
+package com.covid19.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Top locations of one series by one metric, as served by the REST API and shown on the home page.
+ */
+public final class Leaderboard {
+
+    private final long version;
+
+    private final PatientType patientType;
+
+    private final LocationSortKey metric;
+
+    private final List<LeaderboardEntry> entries;
+
+    public Leaderboard(final long version, final PatientType patientType, final LocationSortKey metric,
+            final List<LeaderboardEntry> entries) {
+        this.version = version;
+        this.patientType = patientType;
+        this.metric = metric;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return version of the snapshot the leaderboard was read from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public LocationSortKey getMetric() {
+        return metric;
+    }
+
+    /**
+     * @return best first, fewer than asked for if the metric is unknown for the other locations
+     */
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Leaderboard [version=");
+        builder.append(version);
+        builder.append(", patientType=");
+        builder.append(patientType);
+        builder.append(", metric=");
+        builder.append(metric);
+        builder.append(", entries=");
+        builder.append(entries.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.covid19.models;
+
+/**
+ * One location of a {@link Leaderboard} with the value of the metric it is ranked on.
+ */
+public final class LeaderboardEntry {
+
+    private final int rank;
+
+    private final String state;
+
+    private final String region;
+
+    private final double value;
+
+    public LeaderboardEntry(final int rank, final String state, final String region, final double value) {
+        this.rank = rank;
+        this.state = state;
+        this.region = region;
+        this.value = value;
+    }
+
+    /**
+     * @return 1 for the first location
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LeaderboardEntry [rank=");
+        builder.append(rank);
+        builder.append(", state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", value=");
+        builder.append(value);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
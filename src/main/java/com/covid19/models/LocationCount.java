@@ -0,0 +1,45 @@
+package com.covid19.models;
+
+/**
+ * Count of one location on one day, as served by the REST API.
+ */
+public final class LocationCount {
+
+    private final String state;
+
+    private final String region;
+
+    private final int count;
+
+    public LocationCount(final String state, final String region, final int count) {
+        this.state = state;
+        this.region = region;
+        this.count = count;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationCount [state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", count=");
+        builder.append(count);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
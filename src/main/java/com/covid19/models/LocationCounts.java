@@ -0,0 +1,73 @@
+package com.covid19.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latest counts of one location, without the daily history, as served by the REST API.
+ */
+public final class LocationCounts {
+
+    private final String state;
+
+    private final String region;
+
+    private final String latitude;
+
+    private final String longitude;
+
+    private final Map<PatientType, PatientsCount> countsByPatientType;
+
+    private LocationCounts(final LocationSnapshot location) {
+        state = location.getState();
+        region = location.getRegion();
+        latitude = location.getLatitude();
+        longitude = location.getLongitude();
+        final Map<PatientType, PatientsCount> counts = new EnumMap<>(PatientType.class);
+        for (final PatientType patientType : PatientType.values()) {
+            final PatientsStatsSnapshot patientsStats = location.getPatientsStats(patientType);
+            counts.put(patientType,
+                    new PatientsCount(patientsStats.getLatestCount(), patientsStats.getDifferenceSincePreviousDay()));
+        }
+        countsByPatientType = Collections.unmodifiableMap(counts);
+    }
+
+    public static LocationCounts of(final LocationSnapshot location) {
+        return new LocationCounts(location);
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getLatitude() {
+        return latitude;
+    }
+
+    public String getLongitude() {
+        return longitude;
+    }
+
+    public Map<PatientType, PatientsCount> getCountsByPatientType() {
+        return countsByPatientType;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationCounts [state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", countsByPatientType=");
+        builder.append(countsByPatientType);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
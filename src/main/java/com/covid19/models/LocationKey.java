@@ -0,0 +1,69 @@
+package com.covid19.models;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Identifies a location the same way the upstream time series do, i.e. by (Province/State, Country/Region). Ordered by
+ * region then state, missing values first.
+ */
+public final class LocationKey implements Comparable<LocationKey> {
+
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final String state;
+
+    private final String region;
+
+    public LocationKey(final String state, final String region) {
+        this.state = state;
+        this.region = region;
+    }
+
+    public static LocationKey of(final LocationStats locationStats) {
+        return new LocationKey(locationStats.getState(), locationStats.getRegion());
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Natural ordering of locations, for whatever holds a state and a region.
+     */
+    public static int compare(final String state, final String region, final String otherState,
+            final String otherRegion) {
+        final int cmp = NAME_ORDER.compare(region, otherRegion);
+        return cmp != 0 ? cmp : NAME_ORDER.compare(state, otherState);
+    }
+
+    @Override
+    public int compareTo(final LocationKey otherKey) {
+        return compare(state, region, otherKey.state, otherKey.region);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof LocationKey))
+            return false;
+        final LocationKey otherKey = (LocationKey) other;
+        return Objects.equals(state, otherKey.state) && Objects.equals(region, otherKey.region);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(state, region);
+    }
+
+    @Override
+    public String toString() {
+        return state == null || state.isEmpty() ? region : state + " (" + region + ")";
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.covid19.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of locations as served by the REST API, with the cursor to pass to get the next page.
+ */
+public final class LocationPage {
+
+    private final long version;
+
+    private final PatientType patientType;
+
+    private final LocationSortKey sort;
+
+    private final String region;
+
+    private final List<LocationCounts> locations;
+
+    private final String nextCursor;
+
+    public LocationPage(final long version, final PatientType patientType, final LocationSortKey sort,
+            final String region, final List<LocationCounts> locations, final String nextCursor) {
+        this.version = version;
+        this.patientType = patientType;
+        this.sort = sort;
+        this.region = region;
+        this.locations = Collections.unmodifiableList(locations);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return version of the snapshot the page was read from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public LocationSortKey getSort() {
+        return sort;
+    }
+
+    /**
+     * @return region filtered on, null for all regions
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    public List<LocationCounts> getLocations() {
+        return locations;
+    }
+
+    /**
+     * @return null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationPage [version=");
+        builder.append(version);
+        builder.append(", patientType=");
+        builder.append(patientType);
+        builder.append(", sort=");
+        builder.append(sort);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", locationCount=");
+        builder.append(locations.size());
+        builder.append(", nextCursor=");
+        builder.append(nextCursor);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.covid19.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a {@link LocationStats} and its stats, as part of a {@link DatasetSnapshot}. Getters are named as
+ * in {@link LocationStats} so that templates can render either.
+ */
+public final class LocationSnapshot {
+
+    private final LocationKey key;
+
+    private final String latitude;
+
+    private final String longitude;
+
+    // Parsed once per snapshot, NaN if unknown
+    private final double latitudeDegrees;
+
+    private final double longitudeDegrees;
+
+    private final PatientsStatsSnapshot infectedPatientsStats;
+
+    private final PatientsStatsSnapshot deadPatientsStats;
+
+    private final PatientsStatsSnapshot recoveredPatientsStats;
+
+    private final LocalDateTime updatedOn;
+
+    private LocationSnapshot(final LocationStats locationStats) {
+        key = LocationKey.of(locationStats);
+        latitude = locationStats.getLatitude();
+        longitude = locationStats.getLongitude();
+        final double parsedLatitude = parseCoordinate(latitude, 90);
+        final double parsedLongitude = parseCoordinate(longitude, 180);
+        // Upstream reports locations it has no coordinates for, e.g. cruise ships, at 0,0
+        final boolean known = !Double.isNaN(parsedLatitude) && !Double.isNaN(parsedLongitude)
+                && (parsedLatitude != 0 || parsedLongitude != 0);
+        latitudeDegrees = known ? parsedLatitude : Double.NaN;
+        longitudeDegrees = known ? parsedLongitude : Double.NaN;
+        infectedPatientsStats = PatientsStatsSnapshot.of(PatientType.INFECTED,
+                locationStats.getInfectedPatientsStats());
+        deadPatientsStats = PatientsStatsSnapshot.of(PatientType.DEAD, locationStats.getDeadPatientsStats());
+        recoveredPatientsStats = PatientsStatsSnapshot.of(PatientType.RECOVERED,
+                locationStats.getRecoveredPatientsStats());
+        updatedOn = locationStats.getUpdatedOn();
+    }
+
+    public static LocationSnapshot of(final LocationStats locationStats) {
+        return new LocationSnapshot(locationStats);
+    }
+
+    private static double parseCoordinate(final String coordinate, final double limit) {
+        if (coordinate == null || coordinate.isBlank())
+            return Double.NaN;
+        try {
+            final double degrees = Double.parseDouble(coordinate.trim());
+            return Math.abs(degrees) <= limit ? degrees : Double.NaN;
+        } catch (final NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public LocationKey getKey() {
+        return key;
+    }
+
+    public String getState() {
+        return key.getState();
+    }
+
+    public String getRegion() {
+        return key.getRegion();
+    }
+
+    public String getLatitude() {
+        return latitude;
+    }
+
+    public String getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return whether both coordinates are known
+     */
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitudeDegrees);
+    }
+
+    /**
+     * @return NaN if the coordinates are unknown
+     */
+    public double getLatitudeDegrees() {
+        return latitudeDegrees;
+    }
+
+    /**
+     * @return NaN if the coordinates are unknown
+     */
+    public double getLongitudeDegrees() {
+        return longitudeDegrees;
+    }
+
+    public PatientsStatsSnapshot getInfectedPatientsStats() {
+        return infectedPatientsStats;
+    }
+
+    public PatientsStatsSnapshot getDeadPatientsStats() {
+        return deadPatientsStats;
+    }
+
+    public PatientsStatsSnapshot getRecoveredPatientsStats() {
+        return recoveredPatientsStats;
+    }
+
+    public PatientsStatsSnapshot getPatientsStats(final PatientType patientType) {
+        return switch (patientType) {
+            case DEAD -> deadPatientsStats;
+            case INFECTED -> infectedPatientsStats;
+            case RECOVERED -> recoveredPatientsStats;
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+    }
+
+    public LocalDateTime getUpdatedOn() {
+        return updatedOn;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationSnapshot [key=");
+        builder.append(key);
+        builder.append(", infectedPatientsStats=");
+        builder.append(infectedPatientsStats);
+        builder.append(", deadPatientsStats=");
+        builder.append(deadPatientsStats);
+        builder.append(", recoveredPatientsStats=");
+        builder.append(recoveredPatientsStats);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.covid19.models;
+
+/**
+ * Orders in which {@link DatasetSnapshot} keeps its locations ready to iterate. Metric orders put the fastest growing
+ * locations first, locations a metric is unknown for last, ties being in name order.
+ */
+public enum LocationSortKey {
+    /** By region then state, see {@link LocationKey} */
+    NAME,
+    /** Highest latest count first */
+    LATEST_COUNT,
+    /** Highest difference since the previous day first */
+    DAILY_DELTA,
+    /** Highest 7 day moving average of new cases first */
+    MOVING_AVERAGE_7,
+    /** Highest 14 day moving average of new cases first */
+    MOVING_AVERAGE_14,
+    /** Highest week over week growth of new cases first */
+    WEEKLY_GROWTH,
+    /** Shortest doubling time first */
+    DOUBLING_TIME;
+
+    /**
+     * @return value the location is ranked on, the higher the earlier, 0 for all locations when sorting by name
+     */
+    public double getValue(final LocationSnapshot location, final PatientType patientType) {
+        final double metric = getMetric(location, patientType);
+        if (Double.isNaN(metric))
+            return Double.NEGATIVE_INFINITY;
+        return this == DOUBLING_TIME ? -metric : metric;
+    }
+
+    /**
+     * @return value of the metric sorted on, NaN if it is unknown for the location, 0 when sorting by name
+     */
+    public double getMetric(final LocationSnapshot location, final PatientType patientType) {
+        final PatientsStatsSnapshot patientsStats = location.getPatientsStats(patientType);
+        return switch (this) {
+            case NAME -> 0;
+            case LATEST_COUNT -> patientsStats.getLatestCount();
+            case DAILY_DELTA -> patientsStats.getDifferenceSincePreviousDay();
+            case MOVING_AVERAGE_7 -> toDouble(patientsStats.getMetrics().getMovingAverage7());
+            case MOVING_AVERAGE_14 -> toDouble(patientsStats.getMetrics().getMovingAverage14());
+            case WEEKLY_GROWTH -> toDouble(patientsStats.getMetrics().getWeeklyGrowthPercent());
+            case DOUBLING_TIME -> toDouble(patientsStats.getMetrics().getDoublingTime());
+            default -> throw new IllegalArgumentException("Unexpected value: " + this);
+        };
+    }
+
+    private static double toDouble(final Double metric) {
+        return metric == null ? Double.NaN : metric;
+    }
+}
@@ -116,6 +116,31 @@ public class LocationStats implements Comparable<LocationStats> {
         this.recoveredPatientsStats = recoveredPatientsStats;
     }
 
+    public PatientsStats getPatientsStats(final PatientType patientType) {
+        return switch (patientType) {
+            case DEAD -> deadPatientsStats;
+            case INFECTED -> infectedPatientsStats;
+            case RECOVERED -> recoveredPatientsStats;
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+    }
+
+    public void setPatientsStats(final PatientsStats patientsStats) {
+        switch (patientsStats.getPatientType()) {
+            case DEAD :
+                deadPatientsStats = (DeadPatientsStats) patientsStats;
+                break;
+            case INFECTED :
+                infectedPatientsStats = (InfectedPatientsStats) patientsStats;
+                break;
+            case RECOVERED :
+                recoveredPatientsStats = (RecoveredPatientsStats) patientsStats;
+                break;
+            default :
+                throw new IllegalArgumentException("Unexpected value: " + patientsStats.getPatientType());
+        }
+    }
+
     public LocalDateTime getUpdatedOn() {
         return updatedOn;
     }
@@ -145,10 +170,7 @@ public class LocationStats implements Comparable<LocationStats> {
 
     @Override
     public int compareTo(final LocationStats otherLocation) {
-        int cmp = 0;
-        if ((cmp = state.compareTo(otherLocation.state)) == 0)
-            return region.compareTo(region);
-        return cmp;
+        return LocationKey.compare(state, region, otherLocation.state, otherLocation.region);
     }
 
 }
@@ -0,0 +1,84 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+
+/**
+ * Daily counts of one series for one location over a range of days, as served by the REST API.
+ */
+public final class LocationTimeSeries {
+
+    private final String state;
+
+    private final String region;
+
+    private final PatientType patientType;
+
+    private final LocalDate firstDay;
+
+    private final LocalDate lastDay;
+
+    private final int[] counts;
+
+    public LocationTimeSeries(final String state, final String region, final PatientType patientType,
+            final LocalDate firstDay, final LocalDate lastDay, final int[] counts) {
+        this.state = state;
+        this.region = region;
+        this.patientType = patientType;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.counts = counts;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    /**
+     * @return day of the first count, null if there are no counts
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return day of the last count, null if there are no counts
+     */
+    public LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    /**
+     * @return one count per day from the first to the last day
+     */
+    public int[] getCounts() {
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationTimeSeries [state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", patientType=");
+        builder.append(patientType);
+        builder.append(", firstDay=");
+        builder.append(firstDay);
+        builder.append(", lastDay=");
+        builder.append(lastDay);
+        builder.append(", dayCount=");
+        builder.append(counts.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
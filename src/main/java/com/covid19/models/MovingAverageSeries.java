@@ -0,0 +1,84 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+
+/**
+ * Moving average of the new cases of one series for one location, one average per day, as served by the REST API.
+ */
+public final class MovingAverageSeries {
+
+    private final String state;
+
+    private final String region;
+
+    private final PatientType patientType;
+
+    private final int window;
+
+    private final LocalDate firstDay;
+
+    private final double[] averages;
+
+    public MovingAverageSeries(final String state, final String region, final PatientType patientType,
+            final int window, final LocalDate firstDay, final double[] averages) {
+        this.state = state;
+        this.region = region;
+        this.patientType = patientType;
+        this.window = window;
+        this.firstDay = firstDay;
+        this.averages = averages;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    /**
+     * @return number of days each average is over
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * @return day of the first average, null if there are no averages
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return one average per day from the first day on
+     */
+    public double[] getAverages() {
+        return averages;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("MovingAverageSeries [state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append(", patientType=");
+        builder.append(patientType);
+        builder.append(", window=");
+        builder.append(window);
+        builder.append(", firstDay=");
+        builder.append(firstDay);
+        builder.append(", dayCount=");
+        builder.append(averages.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.covid19.models;
+
+/**
+ * Latest counts of a location with its distance to the point searched from, as served by the REST API.
+ */
+public final class NearbyLocation {
+
+    private final LocationCounts location;
+
+    private final double distanceKm;
+
+    public NearbyLocation(final LocationCounts location, final double distanceKm) {
+        this.location = location;
+        this.distanceKm = distanceKm;
+    }
+
+    public LocationCounts getLocation() {
+        return location;
+    }
+
+    /**
+     * @return great circle distance in kilometres
+     */
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("NearbyLocation [location=");
+        builder.append(location);
+        builder.append(", distanceKm=");
+        builder.append(distanceKm);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
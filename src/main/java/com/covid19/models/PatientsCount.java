@@ -0,0 +1,39 @@
+package com.covid19.models;
+
+/**
+ * Counts of one series for one location, as served by the REST API.
+ */
+public final class PatientsCount {
+
+    private final int latestCount;
+
+    private final int newCount;
+
+    public PatientsCount(final int latestCount, final int newCount) {
+        this.latestCount = latestCount;
+        this.newCount = newCount;
+    }
+
+    public int getLatestCount() {
+        return latestCount;
+    }
+
+    /**
+     * @return difference since the previous day
+     */
+    public int getNewCount() {
+        return newCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("PatientsCount [latestCount=");
+        builder.append(latestCount);
+        builder.append(", newCount=");
+        builder.append(newCount);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
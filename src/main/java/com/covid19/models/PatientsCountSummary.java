@@ -0,0 +1,42 @@
+package com.covid19.models;
+
+/**
+ * Counts of one series summed over a set of locations.
+ */
+public final class PatientsCountSummary {
+
+    private final long currentCount;
+
+    private final long newCount;
+
+    public PatientsCountSummary(final long currentCount, final long newCount) {
+        this.currentCount = currentCount;
+        this.newCount = newCount;
+    }
+
+    /**
+     * @return sum of the latest counts
+     */
+    public long getCurrentCount() {
+        return currentCount;
+    }
+
+    /**
+     * @return sum of the differences between the latest counts and the counts of the day before
+     */
+    public long getNewCount() {
+        return newCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("PatientsCountSummary [currentCount=");
+        builder.append(currentCount);
+        builder.append(", newCount=");
+        builder.append(newCount);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
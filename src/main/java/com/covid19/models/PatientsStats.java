@@ -1,19 +1,21 @@
 package com.covid19.models;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Objects;
 
 public interface PatientsStats {
 
+    int getId();
+
     PatientType getPatientType();
 
     int getLatestCount();
 
     void setLatestCount(final int latestCount);
 
-    List<Integer> getPastCounts();
+    DailyCounts getPastCounts();
 
-    void setPastCounts(final List<Integer> getpastCounts);
+    void setPastCounts(final DailyCounts pastCounts);
 
     int getDifferenceSincePreviousDay();
 
@@ -23,4 +25,35 @@ public interface PatientsStats {
 
     void setUpdatedOn(final LocalDateTime updatedOn);
 
+    default boolean hasSameCountsAs(final PatientsStats otherStats) {
+        return getLatestCount() == otherStats.getLatestCount()
+                && getDifferenceSincePreviousDay() == otherStats.getDifferenceSincePreviousDay()
+                && Objects.equals(getPastCounts(), otherStats.getPastCounts());
+    }
+
+    /**
+     * Sets the daily counts and derives the latest count and difference since previous day from them.
+     */
+    default void updateCounts(final DailyCounts pastCounts) {
+        final int latestCount = pastCounts.getLatest();
+        int differenceSincePreviousDay = latestCount - pastCounts.getPrevious();
+        // For newly infected locations, previous count will be 0.
+        // For cured people and no newly infected, count will decrease from previous day.
+        differenceSincePreviousDay = differenceSincePreviousDay < 0 ? 0 : differenceSincePreviousDay;
+        setLatestCount(latestCount);
+        setDifferenceSincePreviousDay(differenceSincePreviousDay);
+        setPastCounts(pastCounts);
+        setUpdatedOn(LocalDateTime.now());
+    }
+
+    /**
+     * Copies the counts of freshly fetched stats into this one, so that an existing DB row is updated in place.
+     */
+    default void updateFrom(final PatientsStats fetchedStats) {
+        setLatestCount(fetchedStats.getLatestCount());
+        setPastCounts(fetchedStats.getPastCounts());
+        setDifferenceSincePreviousDay(fetchedStats.getDifferenceSincePreviousDay());
+        setUpdatedOn(fetchedStats.getUpdatedOn());
+    }
+
 }
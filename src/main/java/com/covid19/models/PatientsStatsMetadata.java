@@ -0,0 +1,111 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Describes the days stored for one series as of the last refresh, so that the next refresh can tell which days are
+ * new, and when the series was last confirmed to be up to date with upstream.
+ */
+@Entity
+@Table(name = "patients_stats_metadata")
+public class PatientsStatsMetadata {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "patient_type")
+    private PatientType patientType;
+
+    @Column(name = "first_day")
+    private LocalDate firstDay;
+
+    @Column(name = "last_day")
+    private LocalDate lastDay;
+
+    @Column(name = "day_count")
+    private int dayCount;
+
+    @Column(name = "UpdatedOn")
+    private LocalDateTime updatedOn;
+
+    /**
+     * Last refresh which either stored the series or found it unchanged upstream.
+     */
+    @Column(name = "ingested_on")
+    private LocalDateTime ingestedOn;
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public void setPatientType(final PatientType patientType) {
+        this.patientType = patientType;
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public void setFirstDay(final LocalDate firstDay) {
+        this.firstDay = firstDay;
+    }
+
+    public LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    public void setLastDay(final LocalDate lastDay) {
+        this.lastDay = lastDay;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public void setDayCount(final int dayCount) {
+        this.dayCount = dayCount;
+    }
+
+    public LocalDateTime getUpdatedOn() {
+        return updatedOn;
+    }
+
+    public void setUpdatedOn(final LocalDateTime updatedOn) {
+        this.updatedOn = updatedOn;
+    }
+
+    public LocalDateTime getIngestedOn() {
+        return ingestedOn;
+    }
+
+    public void setIngestedOn(final LocalDateTime ingestedOn) {
+        this.ingestedOn = ingestedOn;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("PatientsStatsMetadata [patientType=");
+        builder.append(patientType);
+        builder.append(", firstDay=");
+        builder.append(firstDay);
+        builder.append(", lastDay=");
+        builder.append(lastDay);
+        builder.append(", dayCount=");
+        builder.append(dayCount);
+        builder.append(", updatedOn=");
+        builder.append(updatedOn);
+        builder.append(", ingestedOn=");
+        builder.append(ingestedOn);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.covid19.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the {@link PatientsStats} of one location, as part of a {@link DatasetSnapshot}.
+ */
+public final class PatientsStatsSnapshot {
+
+    private final PatientType patientType;
+
+    private final int latestCount;
+
+    private final int differenceSincePreviousDay;
+
+    private final DailyCounts pastCounts;
+
+    private final LocalDateTime updatedOn;
+
+    private final DerivedMetrics metrics;
+
+    private PatientsStatsSnapshot(final PatientType patientType, final int latestCount,
+            final int differenceSincePreviousDay, final DailyCounts pastCounts, final LocalDateTime updatedOn) {
+        this.patientType = patientType;
+        this.latestCount = latestCount;
+        this.differenceSincePreviousDay = differenceSincePreviousDay;
+        this.pastCounts = pastCounts;
+        this.updatedOn = updatedOn;
+        metrics = DerivedMetrics.of(pastCounts);
+    }
+
+    /**
+     * @param patientsStats stats to copy, null for a location missing from the series
+     */
+    public static PatientsStatsSnapshot of(final PatientType patientType, final PatientsStats patientsStats) {
+        if (patientsStats == null)
+            return new PatientsStatsSnapshot(patientType, 0, 0, DailyCounts.empty(), null);
+        // Daily counts are immutable, no need to copy them
+        return new PatientsStatsSnapshot(patientType, patientsStats.getLatestCount(),
+                patientsStats.getDifferenceSincePreviousDay(),
+                patientsStats.getPastCounts() == null ? DailyCounts.empty() : patientsStats.getPastCounts(),
+                patientsStats.getUpdatedOn());
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public int getLatestCount() {
+        return latestCount;
+    }
+
+    public int getDifferenceSincePreviousDay() {
+        return differenceSincePreviousDay;
+    }
+
+    public DailyCounts getPastCounts() {
+        return pastCounts;
+    }
+
+    public LocalDateTime getUpdatedOn() {
+        return updatedOn;
+    }
+
+    public DerivedMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("PatientsStatsSnapshot [patientType=");
+        builder.append(patientType);
+        builder.append(", latestCount=");
+        builder.append(latestCount);
+        builder.append(", differenceSincePreviousDay=");
+        builder.append(differenceSincePreviousDay);
+        builder.append(", dayCount=");
+        builder.append(pastCounts.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
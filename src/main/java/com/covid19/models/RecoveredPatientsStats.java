@@ -1,9 +1,6 @@
 package com.covid19.models;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -11,9 +8,10 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.Table;
 
-import com.covid19.repositories.converters.StringListConverter;
+import com.covid19.repositories.converters.DeltaVarintCountsConverter;
 
 @Entity
 @Table(name = "RecoveredPatientsStats")
@@ -26,11 +24,13 @@ public class RecoveredPatientsStats implements PatientsStats, Comparable<Recover
     private int latestCount;
 
     /**
-     * This stores recovered count from previous days as a comma separated String in DB which is transformed and used as List in service.
+     * Recovered counts of previous days as a {@link DailyCounts}, backed by a primitive int array, stored in DB as
+     * delta encoded varints by {@link DeltaVarintCountsConverter}.
      */
-    @Column(name = "daily_recovered_count", length = 10000)
-    @Convert(converter = StringListConverter.class)
-    private List<Integer> pastCounts;
+    @Lob
+    @Column(name = "daily_recovered_count_bin")
+    @Convert(converter = DeltaVarintCountsConverter.class)
+    private DailyCounts pastCounts;
 
     @Column(name = "UpdatedOn")
     private LocalDateTime updatedOn;
@@ -38,6 +38,7 @@ public class RecoveredPatientsStats implements PatientsStats, Comparable<Recover
     @Column(name = "Diff")
     private int differenceSincePreviousDay;
 
+    @Override
     public int getId() {
         return id;
     }
@@ -53,12 +54,12 @@ public class RecoveredPatientsStats implements PatientsStats, Comparable<Recover
     }
 
     @Override
-    public List<Integer> getPastCounts() {
+    public DailyCounts getPastCounts() {
         return pastCounts;
     }
 
     @Override
-    public void setPastCounts(final List<Integer> pastCounts) {
+    public void setPastCounts(final DailyCounts pastCounts) {
         this.pastCounts = pastCounts;
     }
 
@@ -111,7 +112,7 @@ public class RecoveredPatientsStats implements PatientsStats, Comparable<Recover
 
     public RecoveredPatientsStats initialiseToMatchForEmptyDbRow(final int lengthOfPreviousCounts) {
         latestCount = 0;
-        pastCounts = new ArrayList<>(Collections.nCopies(lengthOfPreviousCounts, 0));
+        pastCounts = DailyCounts.zeros(lengthOfPreviousCounts);
         updatedOn = LocalDateTime.now();
         differenceSincePreviousDay = 0;
         return this;
@@ -0,0 +1,72 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rollup of one region with its locations, as served by the REST API.
+ */
+public final class RegionDetails {
+
+    private final RegionSummary summary;
+
+    private final List<LocationCounts> locations;
+
+    private final Map<PatientType, LocationTimeSeries> dailyCountsByPatientType;
+
+    private RegionDetails(final RegionSummary summary, final List<LocationCounts> locations,
+            final Map<PatientType, LocationTimeSeries> dailyCountsByPatientType) {
+        this.summary = summary;
+        this.locations = Collections.unmodifiableList(locations);
+        this.dailyCountsByPatientType = Collections.unmodifiableMap(dailyCountsByPatientType);
+    }
+
+    public static RegionDetails of(final DatasetSnapshot snapshot, final RegionRollup rollup) {
+        final List<LocationCounts> locations = new ArrayList<>(rollup.getLocations().size());
+        for (final LocationSnapshot location : rollup.getLocations())
+            locations.add(LocationCounts.of(location));
+        final Map<PatientType, LocationTimeSeries> dailyCounts = new EnumMap<>(PatientType.class);
+        for (final PatientType patientType : PatientType.values()) {
+            final DailyCounts counts = rollup.getDailyCounts(patientType);
+            final LocalDate firstDay = snapshot.getFirstDay(patientType);
+            dailyCounts.put(patientType, new LocationTimeSeries(null, rollup.getRegion(), patientType, firstDay,
+                    firstDay == null || counts.isEmpty() ? null : firstDay.plusDays(counts.size() - 1L),
+                    counts.toArray()));
+        }
+        return new RegionDetails(rollup.getSummary(), locations, dailyCounts);
+    }
+
+    public RegionSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * @return ordered by state
+     */
+    public List<LocationCounts> getLocations() {
+        return locations;
+    }
+
+    /**
+     * @return daily sums over the locations of the region
+     */
+    public Map<PatientType, LocationTimeSeries> getDailyCountsByPatientType() {
+        return dailyCountsByPatientType;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RegionDetails [summary=");
+        builder.append(summary);
+        builder.append(", locationCount=");
+        builder.append(locations.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.covid19.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All locations of one region summed up, both latest counts and daily history, e.g. Canada as the sum of its
+ * provinces. Built once per {@link DatasetSnapshot}.
+ */
+public final class RegionRollup {
+
+    private final RegionSummary summary;
+
+    private final List<LocationSnapshot> locations;
+
+    private final Map<PatientType, DailyCounts> dailyCountsByPatientType;
+
+    private RegionRollup(final RegionSummary summary, final List<LocationSnapshot> locations,
+            final Map<PatientType, DailyCounts> dailyCountsByPatientType) {
+        this.summary = summary;
+        this.locations = locations;
+        this.dailyCountsByPatientType = dailyCountsByPatientType;
+    }
+
+    /**
+     * @param locations ordered by region, as in {@link DatasetSnapshot#getLocations()}
+     * @param regions   summaries of the regions of these locations, in the same order
+     * @return rollups by region name, in region order
+     */
+    static Map<String, RegionRollup> of(final List<LocationSnapshot> locations, final List<RegionSummary> regions) {
+        final Map<String, RegionRollup> rollups = new LinkedHashMap<>();
+        int start = 0;
+        for (final RegionSummary region : regions) {
+            final List<LocationSnapshot> regionLocations = locations.subList(start,
+                    start + region.getLocationCount());
+            final Map<PatientType, DailyCounts> dailyCounts = new EnumMap<>(PatientType.class);
+            for (final PatientType patientType : PatientType.values())
+                dailyCounts.put(patientType, sumDailyCounts(regionLocations, patientType));
+            rollups.put(region.getRegion(),
+                    new RegionRollup(region, regionLocations, Collections.unmodifiableMap(dailyCounts)));
+            start += region.getLocationCount();
+        }
+        return Collections.unmodifiableMap(rollups);
+    }
+
+    private static DailyCounts sumDailyCounts(final List<LocationSnapshot> locations, final PatientType patientType) {
+        int dayCount = 0;
+        for (final LocationSnapshot location : locations)
+            dayCount = Math.max(dayCount, location.getPatientsStats(patientType).getPastCounts().size());
+        final int[] sums = new int[dayCount];
+        for (final LocationSnapshot location : locations)
+            location.getPatientsStats(patientType).getPastCounts().addTo(sums);
+        return DailyCounts.wrap(sums);
+    }
+
+    public String getRegion() {
+        return summary.getRegion();
+    }
+
+    /**
+     * @return latest and new counts of the region
+     */
+    public RegionSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * @return locations of the region, ordered by state
+     */
+    public List<LocationSnapshot> getLocations() {
+        return locations;
+    }
+
+    /**
+     * @return daily sums of the series over the locations of the region, from the first day of the series
+     */
+    public DailyCounts getDailyCounts(final PatientType patientType) {
+        return dailyCountsByPatientType.get(patientType);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RegionRollup [summary=");
+        builder.append(summary);
+        builder.append(", dayCounts=");
+        for (final Map.Entry<PatientType, DailyCounts> entry : dailyCountsByPatientType.entrySet())
+            builder.append(entry.getKey()).append(':').append(entry.getValue().size()).append(' ');
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
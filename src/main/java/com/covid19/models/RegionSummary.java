@@ -0,0 +1,54 @@
+package com.covid19.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts of all locations of one region, i.e. of one country summed over its states.
+ */
+public final class RegionSummary {
+
+    private final String region;
+
+    private final int locationCount;
+
+    private final Map<PatientType, PatientsCountSummary> countsByPatientType;
+
+    RegionSummary(final String region, final int locationCount,
+            final Map<PatientType, PatientsCountSummary> countsByPatientType) {
+        this.region = region;
+        this.locationCount = locationCount;
+        this.countsByPatientType = Collections.unmodifiableMap(new EnumMap<>(countsByPatientType));
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public int getLocationCount() {
+        return locationCount;
+    }
+
+    public Map<PatientType, PatientsCountSummary> getCountsByPatientType() {
+        return countsByPatientType;
+    }
+
+    public PatientsCountSummary getCounts(final PatientType patientType) {
+        return countsByPatientType.get(patientType);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RegionSummary [region=");
+        builder.append(region);
+        builder.append(", locationCount=");
+        builder.append(locationCount);
+        builder.append(", countsByPatientType=");
+        builder.append(countsByPatientType);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
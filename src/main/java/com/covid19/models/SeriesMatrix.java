@@ -0,0 +1,137 @@
+package com.covid19.models;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Daily counts of one series for all locations of a {@link DatasetSnapshot}, in a single int array with one row per
+ * location, in snapshot order, and one column per day of the date dictionary. Locations with fewer days than others
+ * are padded with zeros.
+ */
+public final class SeriesMatrix {
+
+    private final PatientType patientType;
+
+    // Consecutive days, as in the upstream time series
+    private final LocalDate[] days;
+
+    private final int locationCount;
+
+    private final int[] counts;
+
+    private SeriesMatrix(final PatientType patientType, final LocalDate[] days, final int locationCount,
+            final int[] counts) {
+        this.patientType = patientType;
+        this.days = days;
+        this.locationCount = locationCount;
+        this.counts = counts;
+    }
+
+    static SeriesMatrix of(final PatientType patientType, final LocalDate firstDay,
+            final List<LocationSnapshot> locations) {
+        int dayCount = 0;
+        for (final LocationSnapshot location : locations)
+            dayCount = Math.max(dayCount, location.getPatientsStats(patientType).getPastCounts().size());
+        final LocalDate[] days = new LocalDate[dayCount];
+        for (int day = 0; day < dayCount; day++)
+            days[day] = firstDay.plusDays(day);
+        final int[] counts = new int[locations.size() * dayCount];
+        for (int location = 0; location < locations.size(); location++)
+            locations.get(location).getPatientsStats(patientType).getPastCounts().copyTo(counts, location * dayCount);
+        return new SeriesMatrix(patientType, days, locations.size(), counts);
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public int getLocationCount() {
+        return locationCount;
+    }
+
+    public int getDayCount() {
+        return days.length;
+    }
+
+    /**
+     * @return null if the series has no days
+     */
+    public LocalDate getFirstDay() {
+        return days.length == 0 ? null : days[0];
+    }
+
+    /**
+     * @return null if the series has no days
+     */
+    public LocalDate getLastDay() {
+        return days.length == 0 ? null : days[days.length - 1];
+    }
+
+    public LocalDate getDay(final int day) {
+        return days[day];
+    }
+
+    /**
+     * @return index of the day's column, -1 if the series does not cover it
+     */
+    public int indexOf(final LocalDate day) {
+        if (days.length == 0)
+            return -1;
+        final long index = ChronoUnit.DAYS.between(days[0], day);
+        return index < 0 || index >= days.length ? -1 : (int) index;
+    }
+
+    /**
+     * @param location index of the location in {@link DatasetSnapshot#getLocations()}
+     */
+    public int get(final int location, final int day) {
+        return counts[location * days.length + day];
+    }
+
+    /**
+     * @return counts of the location from the first to the last day, both included
+     */
+    public int[] getRange(final int location, final int firstDay, final int lastDay) {
+        final int rowStart = location * days.length;
+        return Arrays.copyOfRange(counts, rowStart + firstDay, rowStart + lastDay + 1);
+    }
+
+    /**
+     * @return counts of all locations on the day, in snapshot order
+     */
+    public int[] getColumn(final int day) {
+        final int[] column = new int[locationCount];
+        for (int location = 0, index = day; location < locationCount; location++, index += days.length)
+            column[location] = counts[index];
+        return column;
+    }
+
+    /**
+     * @return sum of the counts of all locations on each day, row by row as they are laid out
+     */
+    long[] sumColumns() {
+        final long[] sums = new long[days.length];
+        for (int index = 0; index < counts.length; index += days.length)
+            for (int day = 0; day < days.length; day++)
+                sums[day] += counts[index + day];
+        return sums;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("SeriesMatrix [patientType=");
+        builder.append(patientType);
+        builder.append(", firstDay=");
+        builder.append(getFirstDay());
+        builder.append(", locationCount=");
+        builder.append(locationCount);
+        builder.append(", dayCount=");
+        builder.append(days.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.covid19.models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 2-d tree of the locations of a snapshot whose coordinates are known, built once per snapshot. The tree is implicit:
+ * the node of a range of the arrays is its middle element, lower coordinates being before it and higher ones after,
+ * split on latitude at even depths and on longitude at odd ones.
+ * <p>
+ * Distances are great circle distances, nearest neighbour searches skipping the subtrees which cannot hold a location
+ * nearer than the ones found so far.
+ */
+public final class SpatialIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double RIGHT_ANGLE = Math.PI / 2;
+
+    // Indexes into the locations of the snapshot, in tree order
+    private final int[] locationIndexes;
+
+    // In degrees, in tree order
+    private final double[] latitudes;
+
+    private final double[] longitudes;
+
+    private SpatialIndex(final int[] locationIndexes, final double[] latitudes, final double[] longitudes) {
+        this.locationIndexes = locationIndexes;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    static SpatialIndex of(final List<LocationSnapshot> locations) {
+        int size = 0;
+        for (final LocationSnapshot location : locations)
+            if (location.hasCoordinates())
+                size++;
+        final Integer[] order = new Integer[size];
+        for (int i = 0, node = 0; i < locations.size(); i++)
+            if (locations.get(i).hasCoordinates())
+                order[node++] = i;
+        build(locations, order, 0, size, 0);
+        final int[] locationIndexes = new int[size];
+        final double[] latitudes = new double[size];
+        final double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            locationIndexes[i] = order[i];
+            latitudes[i] = locations.get(order[i]).getLatitudeDegrees();
+            longitudes[i] = locations.get(order[i]).getLongitudeDegrees();
+        }
+        return new SpatialIndex(locationIndexes, latitudes, longitudes);
+    }
+
+    // Sorting each range on its axis puts its median in the middle, O(n log^2 n) overall
+    private static void build(final List<LocationSnapshot> locations, final Integer[] order, final int from,
+            final int to, final int depth) {
+        if (to - from < 2)
+            return;
+        final Comparator<Integer> byAxis = depth % 2 == 0
+                ? Comparator.comparingDouble(i -> locations.get(i).getLatitudeDegrees())
+                : Comparator.comparingDouble(i -> locations.get(i).getLongitudeDegrees());
+        Arrays.sort(order, from, to, byAxis);
+        final int middle = (from + to) >>> 1;
+        build(locations, order, from, middle, depth + 1);
+        build(locations, order, middle + 1, to, depth + 1);
+    }
+
+    /**
+     * @return number of locations indexed, i.e. with known coordinates
+     */
+    public int size() {
+        return locationIndexes.length;
+    }
+
+    /**
+     * Locations within a box, borders included. A box whose west border is east of its east border spans the
+     * antimeridian.
+     *
+     * @return indexes into the locations of the snapshot, in ascending order
+     * @throws IllegalArgumentException if a coordinate is out of range or south is north of north
+     */
+    public int[] within(final double south, final double west, final double north, final double east) {
+        checkLatitude(south);
+        checkLatitude(north);
+        checkLongitude(west);
+        checkLongitude(east);
+        if (south > north)
+            throw new IllegalArgumentException("South " + south + " is north of north " + north);
+        final int[] found = new int[locationIndexes.length];
+        int count;
+        if (west <= east)
+            count = collectWithin(0, locationIndexes.length, 0, south, west, north, east, found, 0);
+        else {
+            count = collectWithin(0, locationIndexes.length, 0, south, west, north, 180, found, 0);
+            count = collectWithin(0, locationIndexes.length, 0, south, -180, north, east, found, count);
+        }
+        final int[] within = Arrays.copyOf(found, count);
+        Arrays.sort(within);
+        return within;
+    }
+
+    private int collectWithin(final int from, final int to, final int depth, final double south, final double west,
+            final double north, final double east, final int[] found, final int count) {
+        if (from >= to)
+            return count;
+        final int middle = (from + to) >>> 1;
+        final double latitude = latitudes[middle];
+        final double longitude = longitudes[middle];
+        int newCount = count;
+        if (latitude >= south && latitude <= north && longitude >= west && longitude <= east)
+            found[newCount++] = locationIndexes[middle];
+        final double split = depth % 2 == 0 ? latitude : longitude;
+        if ((depth % 2 == 0 ? south : west) <= split)
+            newCount = collectWithin(from, middle, depth + 1, south, west, north, east, found, newCount);
+        if ((depth % 2 == 0 ? north : east) >= split)
+            newCount = collectWithin(middle + 1, to, depth + 1, south, west, north, east, found, newCount);
+        return newCount;
+    }
+
+    /**
+     * @param count at least 1, all locations being returned if there are fewer
+     * @return indexes into the locations of the snapshot, nearest first
+     * @throws IllegalArgumentException if a coordinate is out of range or the count is not positive
+     */
+    public int[] nearest(final double latitude, final double longitude, final int count) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+        if (count < 1)
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        final Neighbours neighbours = new Neighbours(Math.min(count, locationIndexes.length));
+        searchNearest(0, locationIndexes.length, 0, latitude, longitude, neighbours);
+        final int[] nearest = new int[neighbours.size];
+        for (int i = 0; i < nearest.length; i++)
+            nearest[i] = locationIndexes[neighbours.nodes[i]];
+        return nearest;
+    }
+
+    private void searchNearest(final int from, final int to, final int depth, final double latitude,
+            final double longitude, final Neighbours neighbours) {
+        if (from >= to)
+            return;
+        final int middle = (from + to) >>> 1;
+        neighbours.offer(middle, angularDistance(latitude, longitude, latitudes[middle], longitudes[middle]));
+        final double split = depth % 2 == 0 ? latitudes[middle] : longitudes[middle];
+        final boolean before = (depth % 2 == 0 ? latitude : longitude) < split;
+        if (before)
+            searchNearest(from, middle, depth + 1, latitude, longitude, neighbours);
+        else
+            searchNearest(middle + 1, to, depth + 1, latitude, longitude, neighbours);
+        // Nearest any location on the other side of the split can be
+        final double bound = depth % 2 == 0 ? Math.toRadians(Math.abs(latitude - split))
+                : longitudeBound(latitude, before ? Math.min(split - longitude, 180 + longitude)
+                        : Math.min(longitude - split, 180 - longitude));
+        if (neighbours.isFull() && bound >= neighbours.getFarthestDistance())
+            return;
+        if (before)
+            searchNearest(middle + 1, to, depth + 1, latitude, longitude, neighbours);
+        else
+            searchNearest(from, middle, depth + 1, latitude, longitude, neighbours);
+    }
+
+    // Distance to the nearest point whose longitude differs by at least the given degrees, over a pole if shorter
+    private static double longitudeBound(final double latitude, final double longitudeDifference) {
+        return Math.asin(Math.cos(Math.toRadians(latitude))
+                * Math.sin(Math.min(Math.toRadians(longitudeDifference), RIGHT_ANGLE)));
+    }
+
+    /**
+     * @return great circle distance between two points given in degrees
+     */
+    public static double distanceKm(final double latitude1, final double longitude1, final double latitude2,
+            final double longitude2) {
+        return EARTH_RADIUS_KM * angularDistance(latitude1, longitude1, latitude2, longitude2);
+    }
+
+    // Haversine formula, in radians
+    private static double angularDistance(final double latitude1, final double longitude1, final double latitude2,
+            final double longitude2) {
+        final double sinHalfLatitudes = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        final double sinHalfLongitudes = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        final double haversine = sinHalfLatitudes * sinHalfLatitudes + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * sinHalfLongitudes * sinHalfLongitudes;
+        return 2 * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+    private static void checkLatitude(final double latitude) {
+        if (!(Math.abs(latitude) <= 90))
+            throw new IllegalArgumentException("Latitude must be between -90 and 90: " + latitude);
+    }
+
+    private static void checkLongitude(final double longitude) {
+        if (!(Math.abs(longitude) <= 180))
+            throw new IllegalArgumentException("Longitude must be between -180 and 180: " + longitude);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("SpatialIndex [size=");
+        builder.append(locationIndexes.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * Nearest nodes found so far, kept sorted by distance as there are few of them.
+     */
+    private static final class Neighbours {
+
+        private final int[] nodes;
+
+        private final double[] distances;
+
+        private int size;
+
+        private Neighbours(final int capacity) {
+            nodes = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        private boolean isFull() {
+            return size == nodes.length;
+        }
+
+        private double getFarthestDistance() {
+            return distances[size - 1];
+        }
+
+        private void offer(final int node, final double distance) {
+            if (nodes.length == 0 || isFull() && distance >= getFarthestDistance())
+                return;
+            int i = isFull() ? size - 1 : size++;
+            for (; i > 0 && distances[i - 1] > distance; i--) {
+                nodes[i] = nodes[i - 1];
+                distances[i] = distances[i - 1];
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.covid19.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.covid19.models.LocationStats;
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStats;
+import com.covid19.repositories.converters.DeltaVarintCountsConverter;
+
+/**
+ * Persists the locations changed by a refresh in batches of {@code covid.refresh.batch-size}, one transaction per
+ * batch. Rows which already exist are updated through JDBC batches, new rows are persisted through JPA which batches
+ * the inserts as per {@code hibernate.jdbc.batch_size}.
+ */
+@Repository
+public class LocationStatsBatchWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationStatsBatchWriter.class);
+
+    private static final String UPDATE_LOCATION_STATS = "UPDATE location_stats SET lat = ?, long = ?, updated_on = ? WHERE id = ?";
+
+    private static final String UPDATE_INFECTED_PATIENTS_STATS = "UPDATE infected_patients_stats SET latest_infected_count = ?, infected_count_history_bin = ?, diff = ?, updated_on = ? WHERE id = ?";
+
+    private static final String UPDATE_DEAD_PATIENTS_STATS = "UPDATE dead_patients_stats SET latest_death_count = ?, death_count_history_bin = ?, diff = ?, updated_on = ? WHERE id = ?";
+
+    private static final String UPDATE_RECOVERED_PATIENTS_STATS = "UPDATE recovered_patients_stats SET latest_recovered_count = ?, daily_recovered_count_bin = ?, diff = ?, updated_on = ? WHERE id = ?";
+
+    private final DeltaVarintCountsConverter pastCountsConverter = new DeltaVarintCountsConverter();
+
+    @Value("${covid.refresh.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LocationStatsWriteReport write(final List<LocationStats> changedStats, final int unchangedCount,
+            final LocalDateTime updatedOn) {
+        final long startTime = System.currentTimeMillis();
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int insertedCount = 0;
+        int batchCount = 0;
+        for (int fromIndex = 0; fromIndex < changedStats.size(); fromIndex += batchSize) {
+            final List<LocationStats> batch = changedStats.subList(fromIndex,
+                    Math.min(fromIndex + batchSize, changedStats.size()));
+            insertedCount += transactionTemplate.execute(status -> writeBatch(batch, updatedOn));
+            batchCount++;
+        }
+        final LocationStatsWriteReport report = new LocationStatsWriteReport(insertedCount,
+                changedStats.size() - insertedCount, unchangedCount, batchCount,
+                System.currentTimeMillis() - startTime);
+        LOGGER.debug("Wrote location stats : {}", report);
+        return report;
+    }
+
+    /**
+     * @return number of inserted locations
+     */
+    private int writeBatch(final List<LocationStats> batch, final LocalDateTime updatedOn) {
+        final List<LocationStats> statsToUpdate = new ArrayList<>(batch.size());
+        int insertedCount = 0;
+        for (final LocationStats locationStats : batch) {
+            locationStats.setUpdatedOn(updatedOn);
+            if (locationStats.getId() == 0) {
+                entityManager.persist(locationStats);
+                insertedCount++;
+            } else if (hasNewPatientsStats(locationStats))
+                // Stats rows have to be inserted and referenced, leave that to JPA
+                entityManager.merge(locationStats);
+            else
+                statsToUpdate.add(locationStats);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        if (!statsToUpdate.isEmpty()) {
+            final Timestamp updatedOnTimestamp = Timestamp.valueOf(updatedOn);
+            final List<Object[]> locationArgs = new ArrayList<>(statsToUpdate.size());
+            for (final LocationStats locationStats : statsToUpdate)
+                locationArgs.add(new Object[] { locationStats.getLatitude(), locationStats.getLongitude(),
+                        updatedOnTimestamp, locationStats.getId() });
+            jdbcTemplate.batchUpdate(UPDATE_LOCATION_STATS, locationArgs);
+            jdbcTemplate.batchUpdate(UPDATE_INFECTED_PATIENTS_STATS,
+                    getPatientsStatsArgs(statsToUpdate, PatientType.INFECTED, updatedOnTimestamp));
+            jdbcTemplate.batchUpdate(UPDATE_DEAD_PATIENTS_STATS,
+                    getPatientsStatsArgs(statsToUpdate, PatientType.DEAD, updatedOnTimestamp));
+            jdbcTemplate.batchUpdate(UPDATE_RECOVERED_PATIENTS_STATS,
+                    getPatientsStatsArgs(statsToUpdate, PatientType.RECOVERED, updatedOnTimestamp));
+        }
+        return insertedCount;
+    }
+
+    private boolean hasNewPatientsStats(final LocationStats locationStats) {
+        for (final PatientType patientType : PatientType.values()) {
+            final PatientsStats patientsStats = locationStats.getPatientsStats(patientType);
+            if (patientsStats == null || patientsStats.getId() == 0)
+                return true;
+        }
+        return false;
+    }
+
+    private List<Object[]> getPatientsStatsArgs(final List<LocationStats> statsToUpdate,
+            final PatientType patientType, final Timestamp updatedOn) {
+        final List<Object[]> args = new ArrayList<>(statsToUpdate.size());
+        for (final LocationStats locationStats : statsToUpdate) {
+            final PatientsStats patientsStats = locationStats.getPatientsStats(patientType);
+            patientsStats.setUpdatedOn(updatedOn.toLocalDateTime());
+            args.add(new Object[] { patientsStats.getLatestCount(),
+                    pastCountsConverter.convertToDatabaseColumn(patientsStats.getPastCounts()),
+                    patientsStats.getDifferenceSincePreviousDay(), updatedOn, patientsStats.getId() });
+        }
+        return args;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.covid19.repositories;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,21 +10,13 @@ import com.covid19.models.LocationStats;
 
 public interface LocationStatsRepository extends JpaRepository<LocationStats, Integer> {
 
-    @Query(value = "SELECT MAX(updated_on) from LOCATION_STATS", nativeQuery = true)
+    /**
+     * Loads every location together with its patients stats in a single query.
+     */
+    @Query("SELECT l FROM LocationStats l LEFT JOIN FETCH l.infectedPatientsStats LEFT JOIN FETCH l.deadPatientsStats"
+            + " LEFT JOIN FETCH l.recoveredPatientsStats")
     @Transactional(readOnly = true)
-    LocalDateTime findLatestUpdatedTime();
-
-    @Query(value = "SELECT MAX(updated_on) from INFECTED_PATIENTS_STATS", nativeQuery = true)
-    @Transactional(readOnly = true)
-    LocalDateTime findLatestUpdatedTimeOfInfectedPatients();
-
-    @Query(value = "SELECT MAX(updated_on) from DEAD_PATIENTS_STATS", nativeQuery = true)
-    @Transactional(readOnly = true)
-    LocalDateTime findLatestUpdatedTimeOfDeadPatients();
-
-    @Query(value = "SELECT MAX(updated_on) from RECOVERED_PATIENTS_STATS", nativeQuery = true)
-    @Transactional(readOnly = true)
-    LocalDateTime findLatestUpdatedTimeOfRecoveredPatients();
+    List<LocationStats> findAllWithPatientsStats();
 
     @Transactional(readOnly = true)
     List<LocationStats> findByStateAndRegion(String state, String region);
@@ -0,0 +1,61 @@
+package com.covid19.repositories;
+
+public class LocationStatsWriteReport {
+
+    private final int insertedCount;
+
+    private final int updatedCount;
+
+    private final int unchangedCount;
+
+    private final int batchCount;
+
+    private final long elapsedMillis;
+
+    public LocationStatsWriteReport(final int insertedCount, final int updatedCount, final int unchangedCount,
+            final int batchCount, final long elapsedMillis) {
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.unchangedCount = unchangedCount;
+        this.batchCount = batchCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationStatsWriteReport [insertedCount=");
+        builder.append(insertedCount);
+        builder.append(", updatedCount=");
+        builder.append(updatedCount);
+        builder.append(", unchangedCount=");
+        builder.append(unchangedCount);
+        builder.append(", batchCount=");
+        builder.append(batchCount);
+        builder.append(", elapsedMillis=");
+        builder.append(elapsedMillis);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.covid19.repositories;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.covid19.models.DailyCounts;
+import com.covid19.repositories.converters.DeltaVarintCountsConverter;
+
+/**
+ * Copies count histories stored by older versions as comma separated text into the binary columns, for databases
+ * which outlive a restart. Runs once at startup and does nothing when the text columns do not exist.
+ * <p>
+ * The text columns are left in place, they can be dropped once every row has been migrated.
+ */
+@Component
+public class PastCountsColumnMigration implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PastCountsColumnMigration.class);
+
+    // Table, text column, binary column
+    private static final String[][] COLUMNS = {
+            { "infected_patients_stats", "infected_count_history", "infected_count_history_bin" },
+            { "dead_patients_stats", "death_count_history", "death_count_history_bin" },
+            { "recovered_patients_stats", "daily_recovered_count", "daily_recovered_count_bin" } };
+
+    private final DeltaVarintCountsConverter binaryConverter = new DeltaVarintCountsConverter();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        for (final String[] columns : COLUMNS)
+            if (hasColumn(columns[0], columns[1]))
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> migrate(columns[0], columns[1], columns[2]));
+    }
+
+    private boolean hasColumn(final String table, final String column) {
+        final Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = ? AND UPPER(COLUMN_NAME) = ?",
+                Integer.class, table.toUpperCase(), column.toUpperCase());
+        return count != null && count > 0;
+    }
+
+    private void migrate(final String table, final String legacyColumn, final String binaryColumn) {
+        final List<Object[]> args = jdbcTemplate.query(
+                "SELECT id, " + legacyColumn + " FROM " + table + " WHERE " + binaryColumn + " IS NULL AND "
+                        + legacyColumn + " IS NOT NULL",
+                (resultSet, rowNum) -> new Object[] {
+                        binaryConverter.convertToDatabaseColumn(
+                                DailyCounts.wrap(parseCounts(resultSet.getString(2)))),
+                        resultSet.getInt(1) });
+        if (args.isEmpty())
+            return;
+        jdbcTemplate.batchUpdate("UPDATE " + table + " SET " + binaryColumn + " = ? WHERE id = ?", args);
+        LOGGER.info("Migrated {} row(s) of {}.{} to {}", args.size(), table, legacyColumn, binaryColumn);
+    }
+
+    /**
+     * Parses comma separated counts in a single pass over the chars, without any intermediate strings. Whitespace is
+     * ignored and trailing empty values are dropped, as {@link String#split(String)} would.
+     *
+     * @throws NumberFormatException on empty or malformed values, or values out of int range
+     */
+    static int[] parseCounts(final CharSequence joined) {
+        int[] counts = new int[joined.length() / 4 + 1];
+        int size = 0;
+        int emptyValueCount = 0;
+        long value = 0;
+        boolean negative = false;
+        boolean hasSign = false;
+        boolean hasDigits = false;
+        final int length = joined.length();
+        for (int i = 0; i <= length; i++) {
+            final char c = i == length ? ',' : joined.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > (long) Integer.MAX_VALUE + 1)
+                    throw new NumberFormatException("Count out of range: " + joined);
+                hasDigits = true;
+            } else if (c == ',') {
+                if (!hasDigits) {
+                    if (hasSign)
+                        throw new NumberFormatException("Sign without digits: " + joined);
+                    emptyValueCount++;
+                    continue;
+                }
+                if (emptyValueCount > 0)
+                    throw new NumberFormatException("Empty count: " + joined);
+                if (!negative && value > Integer.MAX_VALUE)
+                    throw new NumberFormatException("Count out of range: " + joined);
+                if (size == counts.length)
+                    counts = Arrays.copyOf(counts, size * 2);
+                counts[size++] = (int) (negative ? -value : value);
+                value = 0;
+                negative = false;
+                hasSign = false;
+                hasDigits = false;
+            } else if ((c == '-' || c == '+') && !hasSign && !hasDigits) {
+                negative = c == '-';
+                hasSign = true;
+            } else if (!Character.isWhitespace(c))
+                throw new NumberFormatException("Unexpected '" + c + "' in counts: " + joined);
+        }
+        return size == counts.length ? counts : Arrays.copyOf(counts, size);
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.covid19.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStatsMetadata;
+
+public interface PatientsStatsMetadataRepository extends JpaRepository<PatientsStatsMetadata, PatientType> {
+
+}
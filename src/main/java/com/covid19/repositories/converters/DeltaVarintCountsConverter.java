@@ -0,0 +1,93 @@
+package com.covid19.repositories.converters;
+
+import java.util.Arrays;
+
+import javax.persistence.AttributeConverter;
+
+import com.covid19.models.DailyCounts;
+
+/**
+ * Stores a series of daily counts as bytes : a version byte, the number of counts, then the difference of each count
+ * from the previous one. Numbers are zig-zag encoded so that small negative differences stay small, and written as
+ * varints, i.e. 7 bits per byte with the high bit set on all bytes but the last.
+ * <p>
+ * Cumulative counts grow slowly from day to day, so most differences fit in one or two bytes.
+ */
+public class DeltaVarintCountsConverter implements AttributeConverter<DailyCounts, byte[]> {
+
+    static final byte VERSION = 1;
+
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    @Override
+    public byte[] convertToDatabaseColumn(final DailyCounts countsToPersist) {
+        final int size = countsToPersist == null ? 0 : countsToPersist.size();
+        final byte[] bytes = new byte[1 + MAX_VARINT_LENGTH * (size + 1)];
+        bytes[0] = VERSION;
+        int position = writeVarint(bytes, 1, size);
+        int previousCount = 0;
+        for (int i = 0; i < size; i++) {
+            final int count = countsToPersist.get(i);
+            position = writeVarint(bytes, position, zigZag(count - previousCount));
+            previousCount = count;
+        }
+        return Arrays.copyOf(bytes, position);
+    }
+
+    @Override
+    public DailyCounts convertToEntityAttribute(final byte[] bytesFromDB) {
+        if (bytesFromDB == null || bytesFromDB.length == 0)
+            return DailyCounts.empty();
+        if (bytesFromDB[0] != VERSION)
+            throw new IllegalArgumentException("Unsupported counts encoding version: " + bytesFromDB[0]);
+        final int[] position = { 1 };
+        final int size = readVarint(bytesFromDB, position);
+        // Each count takes at least one byte, a larger size can only come from corrupted bytes
+        if (size > bytesFromDB.length - position[0])
+            throw new IllegalArgumentException("Truncated counts encoding");
+        final int[] counts = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += unZigZag(readVarint(bytesFromDB, position));
+            counts[i] = count;
+        }
+        return DailyCounts.wrap(counts);
+    }
+
+    private static int zigZag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return position following the written varint
+     */
+    private static int writeVarint(final byte[] bytes, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Reads the varint at {@code position[0]} and moves it past the varint.
+     */
+    private static int readVarint(final byte[] bytes, final int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_LENGTH; shift += 7) {
+            if (position[0] >= bytes.length)
+                throw new IllegalArgumentException("Truncated counts encoding");
+            final byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in counts encoding");
+    }
+
+}
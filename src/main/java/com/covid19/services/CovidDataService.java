@@ -1,20 +1,25 @@
 package com.covid19.services;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.covid19.constants.CovidConstants;
-import com.covid19.models.LocationStats;
+import com.covid19.models.DatasetSnapshot;
 import com.covid19.models.PatientType;
-import com.covid19.repositories.LocationStatsRepository;
-import com.covid19.services.helpers.CovidDataServiceHandler;
+import com.covid19.services.helpers.DataFreshnessTracker;
+import com.covid19.services.helpers.RefreshCoordinator;
+import com.covid19.services.helpers.RefreshOutcome;
 
 @Service
 public class CovidDataService {
@@ -28,10 +33,16 @@ public class CovidDataService {
     private static final String CRON_SCHEDULE = "0 30 2,14 * * *";
 
     @Autowired
-    private LocationStatsRepository locationRepo;
+    private RefreshCoordinator refreshCoordinator;
 
     @Autowired
-    private CovidDataServiceHandler covidHandler;
+    private DatasetSnapshotService snapshotService;
+
+    @Autowired
+    private DataFreshnessTracker freshnessTracker;
+
+    @Value("${covid.data.cold-start-wait:10s}")
+    private Duration coldStartWait;
 
     // Schedule twice a day to update latest stats in DB.
     // https://dzone.com/articles/running-on-time-with-springs-scheduled-tasks
@@ -41,108 +52,61 @@ public class CovidDataService {
     @Scheduled(cron = CRON_SCHEDULE)
     public void scheduledDBUpdate() throws IOException, InterruptedException {
         LOGGER.info("Starting cron scheduled DB update at {}", LocalDateTime.now());
-        covidHandler.fetchPrepareAndUpdateWholeDb();
-        LOGGER.info("Scheduled DB updated at {}", LocalDateTime.now());
-    }
-
-    public List<LocationStats> fetchConfirmedInfected() {
-        // Check in DB if data exists and last updated in less than update duration. If not then fetch and send.
-        if (isLatestDataAvailable() && isLatestDataAvailableByPatientType(PatientType.INFECTED))
-            return getDataFromDb();
-        else
-            // TODO : for test and fast data update, remove this else case in prod
-            covidHandler.triggerAsyncDbUpdate();
-        return covidHandler.fetchFromUriByPatientType(CovidConstants.CONFIRMED_INFECTED_URI, PatientType.INFECTED);
-    }
-
-    public List<LocationStats> fetchConfirmedDeads() {
-        if (isLatestDataAvailable() && isLatestDataAvailableByPatientType(PatientType.DEAD))
-            return getDataFromDb();
-        else
-            // TODO : for test and fast data update, remove this else case in prod
-            covidHandler.triggerAsyncDbUpdate();
-        return covidHandler.fetchFromUriByPatientType(CovidConstants.CONFIRMED_DEATHS_URI, PatientType.DEAD);
-    }
-
-    public List<LocationStats> fetchConfirmedRecovered() {
-        if (isLatestDataAvailable() && isLatestDataAvailableByPatientType(PatientType.RECOVERED))
-            return getDataFromDb();
-        else
-            // TODO : for test and fast data update, remove this else case in prod
-            covidHandler.triggerAsyncDbUpdate();
-        return covidHandler.fetchFromUriByPatientType(CovidConstants.CONFIRMED_RECOVERED_URI, PatientType.RECOVERED);
-    }
-
-    private List<LocationStats> getDataFromDb() {
-        return locationRepo.findAll();
+        LOGGER.info("Scheduled DB update ended with {} at {}", refreshCoordinator.triggerRefresh().join(),
+                LocalDateTime.now());
     }
 
-    private boolean isLatestDataAvailable() {
-        final LocalDateTime latestUpdatedOn = locationRepo.findLatestUpdatedTime();
-        if (latestUpdatedOn == null)
-            return false;
-        final LocalDateTime previousUpdatedTimeStamp = LocalDateTime.now().minusHours(12);
-        LOGGER.debug("latestUpdatedOn: {}", latestUpdatedOn);
-        return !latestUpdatedOn.isBefore(previousUpdatedTimeStamp);
+    /**
+     * Never downloads on the calling thread: stale data is served as is while a refresh runs in background. Only when
+     * there is no data at all does the caller wait for the refresh, and at most for the cold start wait. No refresh is
+     * started within the retry interval of a failed one.
+     *
+     * @return snapshot to serve, empty if the cold start refresh did not complete in time
+     */
+    public DatasetSnapshot getSnapshot() {
+        final DatasetSnapshot snapshot = snapshotService.getSnapshot();
+        if (snapshot.isEmpty())
+            return refreshEmptySnapshot();
+        // Check if data was ingested in less than the staleness threshold. If not then update in background.
+        if (!freshnessTracker.isFresh())
+            refreshCoordinator.triggerBackgroundRefresh();
+        return snapshot;
     }
 
-    private boolean isLatestDataAvailableByPatientType(final PatientType patientType) {
-        LocalDateTime latestUpdatedOn = switch (patientType) {
-            case DEAD -> latestUpdatedOn = locationRepo.findLatestUpdatedTimeOfDeadPatients();
-            case INFECTED -> latestUpdatedOn = locationRepo.findLatestUpdatedTimeOfInfectedPatients();
-            case RECOVERED -> latestUpdatedOn = locationRepo.findLatestUpdatedTimeOfRecoveredPatients();
-            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
-        };
-
-        if (latestUpdatedOn == null)
-            return false;
-        final LocalDateTime previousUpdatedTimeStamp = LocalDateTime.now().minusHours(12);
-        LOGGER.debug("latestUpdatedOn: {}", latestUpdatedOn);
-        return !latestUpdatedOn.isBefore(previousUpdatedTimeStamp);
+    // Nothing to serve yet, so requests wait for a refresh, all of them joining the same one
+    private DatasetSnapshot refreshEmptySnapshot() {
+        final CompletableFuture<RefreshOutcome> refresh = refreshCoordinator.triggerBackgroundRefresh();
+        // The last refresh failed recently, waiting for another one would only delay the response
+        if (refresh == null)
+            return snapshotService.getSnapshot();
+        try {
+            refresh.get(coldStartWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("No data loaded after waiting {}, serving empty snapshot", coldStartWait);
+        } catch (final ExecutionException e) {
+            LOGGER.error("Could not load data for an empty snapshot", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return snapshotService.getSnapshot();
     }
 
-    public int getCurrentCountByPatientType(final List<LocationStats> stats, final PatientType patientType) {
-        return switch (patientType) {
-            case DEAD -> stats.stream().mapToInt(patient -> patient.getDeadPatientsStats().getLatestCount()).sum();
-            case INFECTED -> stats.stream().mapToInt(patient -> patient.getInfectedPatientsStats().getLatestCount())
-            .sum();
-            case RECOVERED -> stats.stream().mapToInt(patient -> patient.getRecoveredPatientsStats().getLatestCount())
-            .sum();
-            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
-        };
+    /**
+     * @return whether some series was not ingested within the staleness threshold, a refresh then being due or running
+     */
+    public boolean isStale() {
+        return !freshnessTracker.isFresh();
     }
 
-    public int getNewCountByPatientType(final List<LocationStats> stats, final PatientType patientType) {
-        return switch (patientType) {
-            case DEAD -> stats.stream().mapToInt(
-                    patient -> (patient.getDeadPatientsStats().getLatestCount()
-                            - patient.getDeadPatientsStats().getPastCounts()
-                            .get(stats.get(0).getDeadPatientsStats().getPastCounts().size() - 2)))
-            .sum();
-            case INFECTED -> stats.stream().mapToInt(
-                    patient -> (patient.getInfectedPatientsStats().getLatestCount()
-                            - patient.getInfectedPatientsStats().getPastCounts()
-                            .get(stats.get(0).getInfectedPatientsStats().getPastCounts().size() - 2)))
-            .sum();
-            case RECOVERED -> stats.stream()
-            .mapToInt(patient -> (patient.getRecoveredPatientsStats().getLatestCount()
-                    - patient.getRecoveredPatientsStats().getPastCounts()
-                    .get(stats.get(0).getRecoveredPatientsStats().getPastCounts().size() - 2)))
-            .sum();
-            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
-        };
+    /**
+     * @return null if the series has never been ingested
+     */
+    public LocalDateTime getIngestedOn(final PatientType patientType) {
+        return freshnessTracker.getIngestedOn(patientType);
     }
 
-    public int getNewCountByPatientTypeOld(final List<LocationStats> stats, final PatientType patientType) {
-        return switch (patientType) {
-            case DEAD -> stats.stream()
-                    .mapToInt(patient -> patient.getDeadPatientsStats().getDifferenceSincePreviousDay()).sum();
-            case INFECTED -> stats.stream()
-                    .mapToInt(patient -> patient.getInfectedPatientsStats().getDifferenceSincePreviousDay()).sum();
-            case RECOVERED -> stats.stream()
-                    .mapToInt(patient -> patient.getRecoveredPatientsStats().getDifferenceSincePreviousDay()).sum();
-            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
-        };
+    public boolean isRefreshing() {
+        return refreshCoordinator.isRunning();
     }
 
 }
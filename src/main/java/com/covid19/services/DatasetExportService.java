@@ -0,0 +1,133 @@
+package com.covid19.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+
+import com.covid19.constants.CovidConstants;
+import com.covid19.models.DailyCounts;
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.PatientType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Writes the full daily history of a snapshot, one series and location at a time, so that memory use does not grow
+ * with the size of the export.
+ */
+@Service
+public class DatasetExportService {
+
+    private static final String SERIES = "Series";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes to the stream without closing it.
+     */
+    public void export(final DatasetSnapshot snapshot, final Collection<PatientType> patientTypes,
+            final ExportFormat format, final OutputStream out) throws IOException {
+        switch (format) {
+            case CSV -> exportCsv(snapshot, patientTypes, out);
+            case NDJSON -> exportNdjson(snapshot, patientTypes, out);
+            default -> throw new IllegalArgumentException("Unexpected value: " + format);
+        }
+    }
+
+    // Day columns span all exported series, cells before the first day of a series are left empty. Series of unknown
+    // days start with the first column.
+    private void exportCsv(final DatasetSnapshot snapshot, final Collection<PatientType> patientTypes,
+            final OutputStream out) throws IOException {
+        LocalDate firstDay = null;
+        int dayCount = 0;
+        for (final PatientType patientType : patientTypes) {
+            final LocalDate seriesFirstDay = snapshot.getFirstDay(patientType);
+            if (seriesFirstDay != null && (firstDay == null || seriesFirstDay.isBefore(firstDay)))
+                firstDay = seriesFirstDay;
+        }
+        for (final PatientType patientType : patientTypes)
+            dayCount = Math.max(dayCount, offset(snapshot, patientType, firstDay) + maxDayCount(snapshot, patientType));
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+        printer.print(SERIES);
+        printer.print(CovidConstants.PROVINCE_STATE);
+        printer.print(CovidConstants.COUNTRY_REGION);
+        printer.print(CovidConstants.LATITUDE);
+        printer.print(CovidConstants.LONGITUDE);
+        for (int day = 0; day < dayCount; day++)
+            printer.print(firstDay == null ? Integer.toString(day + 1) : firstDay.plusDays(day).toString());
+        printer.println();
+        for (final PatientType patientType : patientTypes) {
+            final int offset = offset(snapshot, patientType, firstDay);
+            for (final LocationSnapshot location : snapshot.getLocations()) {
+                printer.print(patientType);
+                printer.print(location.getState());
+                printer.print(location.getRegion());
+                printer.print(location.getLatitude());
+                printer.print(location.getLongitude());
+                for (int day = 0; day < offset; day++)
+                    printer.print(null);
+                final DailyCounts counts = location.getPatientsStats(patientType).getPastCounts();
+                for (int day = 0; day < counts.size(); day++)
+                    printer.print(Integer.toString(counts.get(day)));
+                printer.println();
+            }
+        }
+        printer.flush();
+    }
+
+    private void exportNdjson(final DatasetSnapshot snapshot, final Collection<PatientType> patientTypes,
+            final OutputStream out) throws IOException {
+        final JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        for (final PatientType patientType : patientTypes) {
+            final LocalDate firstDay = snapshot.getFirstDay(patientType);
+            for (final LocationSnapshot location : snapshot.getLocations()) {
+                generator.writeStartObject();
+                generator.writeStringField("series", patientType.name());
+                generator.writeStringField("state", location.getState());
+                generator.writeStringField("region", location.getRegion());
+                generator.writeStringField("latitude", location.getLatitude());
+                generator.writeStringField("longitude", location.getLongitude());
+                generator.writeStringField("firstDay", firstDay == null ? null : firstDay.toString());
+                generator.writeArrayFieldStart("counts");
+                final DailyCounts counts = location.getPatientsStats(patientType).getPastCounts();
+                for (int day = 0; day < counts.size(); day++)
+                    generator.writeNumber(counts.get(day));
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    private static int offset(final DatasetSnapshot snapshot, final PatientType patientType,
+            final LocalDate firstDay) {
+        final LocalDate seriesFirstDay = snapshot.getFirstDay(patientType);
+        return seriesFirstDay == null ? 0 : (int) ChronoUnit.DAYS.between(firstDay, seriesFirstDay);
+    }
+
+    private static int maxDayCount(final DatasetSnapshot snapshot, final PatientType patientType) {
+        int dayCount = 0;
+        for (final LocationSnapshot location : snapshot.getLocations())
+            dayCount = Math.max(dayCount, location.getPatientsStats(patientType).getPastCounts().size());
+        return dayCount;
+    }
+
+}
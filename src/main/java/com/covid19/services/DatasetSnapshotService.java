@@ -0,0 +1,64 @@
+package com.covid19.services;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStatsMetadata;
+import com.covid19.repositories.LocationStatsRepository;
+import com.covid19.repositories.PatientsStatsMetadataRepository;
+
+/**
+ * Holds the {@link DatasetSnapshot} served to readers. It is rebuilt from DB after every refresh which changed data,
+ * and at startup for databases which outlive a restart.
+ */
+@Service
+public class DatasetSnapshotService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetSnapshotService.class);
+
+    private final AtomicReference<DatasetSnapshot> currentSnapshot = new AtomicReference<>(DatasetSnapshot.empty());
+
+    @Autowired
+    private LocationStatsRepository locationRepo;
+
+    @Autowired
+    private PatientsStatsMetadataRepository metadataRepo;
+
+    public DatasetSnapshot getSnapshot() {
+        return currentSnapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Builds a snapshot of what is in DB and publishes it. Rebuilds are serialised so that a snapshot never replaces a
+     * newer one, readers keep being served the previous snapshot meanwhile.
+     */
+    public synchronized DatasetSnapshot rebuild() {
+        final long startTime = System.currentTimeMillis();
+        final Map<PatientType, LocalDate> firstDays = new EnumMap<>(PatientType.class);
+        for (final PatientsStatsMetadata metadata : metadataRepo.findAll())
+            if (metadata.getFirstDay() != null)
+                firstDays.put(metadata.getPatientType(), metadata.getFirstDay());
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(currentSnapshot.get().getVersion() + 1,
+                locationRepo.findAllWithPatientsStats(), firstDays);
+        currentSnapshot.set(snapshot);
+        LOGGER.info("Published {} in {} ms", snapshot, System.currentTimeMillis() - startTime);
+        return snapshot;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.covid19.services;
+
+public enum ExportFormat {
+    /** One row per series and location, one column per day, as the upstream time series */
+    CSV("text/csv", "csv"),
+    /** One JSON object per series and location, per line */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(final String contentType, final String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
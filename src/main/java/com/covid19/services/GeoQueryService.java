@@ -0,0 +1,68 @@
+package com.covid19.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationCounts;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.NearbyLocation;
+import com.covid19.models.SpatialIndex;
+
+/**
+ * Answers map queries from the {@link SpatialIndex} of the current snapshot. Locations whose coordinates are unknown
+ * are never returned.
+ */
+@Service
+public class GeoQueryService {
+
+    public static final int MAX_NEAREST = 100;
+
+    @Autowired
+    private CovidDataService csvService;
+
+    /**
+     * @return locations in the box, by region then state
+     * @throws IllegalArgumentException if a coordinate is out of range or south is north of north
+     */
+    public List<LocationCounts> getWithin(final double south, final double west, final double north,
+            final double east) {
+        return getWithin(csvService.getSnapshot(), south, west, north, east);
+    }
+
+    static List<LocationCounts> getWithin(final DatasetSnapshot snapshot, final double south, final double west,
+            final double north, final double east) {
+        final int[] within = snapshot.getSpatialIndex().within(south, west, north, east);
+        final List<LocationCounts> locations = new ArrayList<>(within.length);
+        for (final int location : within)
+            locations.add(LocationCounts.of(snapshot.getLocations().get(location)));
+        return locations;
+    }
+
+    /**
+     * @param count at most {@link #MAX_NEAREST}
+     * @return nearest first
+     * @throws IllegalArgumentException if a coordinate is out of range or on an invalid count
+     */
+    public List<NearbyLocation> getNearest(final double latitude, final double longitude, final int count) {
+        return getNearest(csvService.getSnapshot(), latitude, longitude, count);
+    }
+
+    static List<NearbyLocation> getNearest(final DatasetSnapshot snapshot, final double latitude,
+            final double longitude, final int count) {
+        if (count < 1 || count > MAX_NEAREST)
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_NEAREST + ": " + count);
+        final int[] nearest = snapshot.getSpatialIndex().nearest(latitude, longitude, count);
+        final List<NearbyLocation> locations = new ArrayList<>(nearest.length);
+        for (final int index : nearest) {
+            final LocationSnapshot location = snapshot.getLocations().get(index);
+            locations.add(new NearbyLocation(LocationCounts.of(location), SpatialIndex.distanceKm(latitude, longitude,
+                    location.getLatitudeDegrees(), location.getLongitudeDegrees())));
+        }
+        return locations;
+    }
+
+}
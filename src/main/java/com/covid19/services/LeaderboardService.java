@@ -0,0 +1,66 @@
+package com.covid19.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.Leaderboard;
+import com.covid19.models.LeaderboardEntry;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+
+/**
+ * Top locations by a metric. The snapshot keeps its locations sorted by every metric, so the top ones are the first
+ * of the matching order, and leaderboards are kept until the snapshot is replaced.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final int MAX_SIZE = 100;
+
+    // One entry per series, metric and size, replaced when the data changes
+    private final Map<String, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CovidDataService csvService;
+
+    /**
+     * @param size at most {@link #MAX_SIZE}
+     * @throws IllegalArgumentException if the metric is {@link LocationSortKey#NAME} or on an invalid size
+     */
+    public Leaderboard getTop(final PatientType patientType, final LocationSortKey metric, final int size) {
+        final DatasetSnapshot snapshot = csvService.getSnapshot();
+        final String key = patientType + "/" + metric + "/" + size;
+        final Leaderboard leaderboard = leaderboards.get(key);
+        if (leaderboard != null && leaderboard.getVersion() == snapshot.getVersion())
+            return leaderboard;
+        final Leaderboard top = getTop(snapshot, patientType, metric, size);
+        leaderboards.put(key, top);
+        return top;
+    }
+
+    static Leaderboard getTop(final DatasetSnapshot snapshot, final PatientType patientType,
+            final LocationSortKey metric, final int size) {
+        if (metric == LocationSortKey.NAME)
+            throw new IllegalArgumentException("Locations are not ranked by " + metric);
+        if (size < 1 || size > MAX_SIZE)
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SIZE + ": " + size);
+        final List<LocationSnapshot> ordered = snapshot.getLocations(patientType, metric);
+        final List<LeaderboardEntry> entries = new ArrayList<>(Math.min(size, ordered.size()));
+        for (final LocationSnapshot location : ordered) {
+            final double value = metric.getMetric(location, patientType);
+            // Locations the metric is unknown for are last
+            if (entries.size() == size || Double.isNaN(value))
+                break;
+            entries.add(new LeaderboardEntry(entries.size() + 1, location.getState(), location.getRegion(), value));
+        }
+        return new Leaderboard(snapshot.getVersion(), patientType, metric, entries);
+    }
+
+}
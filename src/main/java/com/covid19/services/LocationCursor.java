@@ -0,0 +1,102 @@
+package com.covid19.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+
+/**
+ * Position after the last location of a page: its sort value and key. Does not depend on the snapshot version, so a
+ * client paging through a refresh carries on from the same place instead of skipping or repeating locations.
+ */
+final class LocationCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    // Prefixes names which are present, so that null and empty names can be told apart
+    private static final char PRESENT = '=';
+
+    private final double value;
+
+    private final String state;
+
+    private final String region;
+
+    private LocationCursor(final double value, final String state, final String region) {
+        this.value = value;
+        this.state = state;
+        this.region = region;
+    }
+
+    static LocationCursor after(final LocationSnapshot location, final LocationSortKey sortKey,
+            final PatientType patientType) {
+        return new LocationCursor(sortKey.getValue(location, patientType), location.getState(), location.getRegion());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not made by {@link #encode()}
+     */
+    static LocationCursor decode(final String cursor) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        final int regionStart = decoded.indexOf(SEPARATOR) + 1;
+        final int stateStart = decoded.indexOf(SEPARATOR, regionStart) + 1;
+        if (regionStart == 0 || stateStart == 0)
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        try {
+            return new LocationCursor(Double.parseDouble(decoded.substring(0, regionStart - 1)),
+                    decodeName(decoded.substring(stateStart)),
+                    decodeName(decoded.substring(regionStart, stateStart - 1)));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static String decodeName(final String name) {
+        return name.isEmpty() ? null : name.substring(1);
+    }
+
+    String encode() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(value).append(SEPARATOR);
+        if (region != null)
+            builder.append(PRESENT).append(region);
+        builder.append(SEPARATOR);
+        if (state != null)
+            builder.append(PRESENT).append(state);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return negative if the location comes before the cursor in the order of the sort key, positive if after
+     */
+    int compareTo(final LocationSnapshot location, final LocationSortKey sortKey, final PatientType patientType) {
+        // Values are sorted descending
+        final int cmp = Double.compare(sortKey.getValue(location, patientType), value);
+        if (cmp != 0)
+            return -cmp;
+        return LocationKey.compare(location.getState(), location.getRegion(), state, region);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationCursor [value=");
+        builder.append(value);
+        builder.append(", state=");
+        builder.append(state);
+        builder.append(", region=");
+        builder.append(region);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.covid19.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationCounts;
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationPage;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+
+/**
+ * Pages through the locations of the current snapshot for the REST API.
+ */
+@Service
+public class LocationQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private CovidDataService csvService;
+
+    /**
+     * @param region only locations of this region if not null
+     * @param cursor {@link LocationPage#getNextCursor()} of the previous page, null for the first page
+     * @param limit  at most {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException on an invalid cursor or limit
+     */
+    public LocationPage getPage(final PatientType patientType, final LocationSortKey sortKey, final String region,
+            final String cursor, final int limit) {
+        return getPage(csvService.getSnapshot(), patientType, sortKey, region, cursor, limit);
+    }
+
+    static LocationPage getPage(final DatasetSnapshot snapshot, final PatientType patientType,
+            final LocationSortKey sortKey, final String region, final String cursor, final int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        final List<LocationSnapshot> ordered = snapshot.getLocations(patientType, sortKey);
+        int index = cursor == null ? 0 : indexAfter(ordered, LocationCursor.decode(cursor), sortKey, patientType);
+        final List<LocationCounts> page = new ArrayList<>(Math.min(limit, ordered.size()));
+        LocationSnapshot last = null;
+        for (; index < ordered.size(); index++) {
+            final LocationSnapshot location = ordered.get(index);
+            if (region != null && !Objects.equals(region, location.getRegion()))
+                continue;
+            if (page.size() == limit)
+                break;
+            page.add(LocationCounts.of(location));
+            last = location;
+        }
+        // Stopped on a location of the next page
+        final String nextCursor = index < ordered.size()
+                ? LocationCursor.after(last, sortKey, patientType).encode()
+                : null;
+        return new LocationPage(snapshot.getVersion(), patientType, sortKey, region, page, nextCursor);
+    }
+
+    /**
+     * @return null if there is no such location
+     */
+    public LocationCounts getLocation(final String state, final String region) {
+        final LocationSnapshot location = csvService.getSnapshot().getLocation(new LocationKey(state, region));
+        return location == null ? null : LocationCounts.of(location);
+    }
+
+    // Binary search of the first location after the cursor, the cursor location may be gone since
+    private static int indexAfter(final List<LocationSnapshot> ordered, final LocationCursor cursor,
+            final LocationSortKey sortKey, final PatientType patientType) {
+        int low = 0;
+        int high = ordered.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (cursor.compareTo(ordered.get(middle), sortKey, patientType) <= 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+}
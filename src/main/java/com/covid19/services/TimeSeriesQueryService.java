@@ -0,0 +1,103 @@
+package com.covid19.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.DayCounts;
+import com.covid19.models.DerivedMetrics;
+import com.covid19.models.LocationCount;
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationSnapshot;
+import com.covid19.models.LocationTimeSeries;
+import com.covid19.models.MovingAverageSeries;
+import com.covid19.models.PatientType;
+import com.covid19.models.SeriesMatrix;
+
+/**
+ * Answers date queries from the {@link SeriesMatrix} of the current snapshot.
+ */
+@Service
+public class TimeSeriesQueryService {
+
+    @Autowired
+    private CovidDataService csvService;
+
+    /**
+     * @param from first day wanted, the first day of the series if null
+     * @param to   last day wanted, the last day of the series if null
+     * @return null if there is no such location, counts of the days the series covers in the range otherwise
+     * @throws IllegalArgumentException if from is after to
+     */
+    public LocationTimeSeries getLocationSeries(final PatientType patientType, final String state,
+            final String region, final LocalDate from, final LocalDate to) {
+        return getLocationSeries(csvService.getSnapshot(), patientType, state, region, from, to);
+    }
+
+    static LocationTimeSeries getLocationSeries(final DatasetSnapshot snapshot, final PatientType patientType,
+            final String state, final String region, final LocalDate from, final LocalDate to) {
+        if (from != null && to != null && from.isAfter(to))
+            throw new IllegalArgumentException("From " + from + " is after to " + to);
+        final int location = snapshot.indexOf(new LocationKey(state, region));
+        if (location < 0)
+            return null;
+        final SeriesMatrix matrix = snapshot.getSeriesMatrix(patientType);
+        if (matrix == null || matrix.getDayCount() == 0)
+            return new LocationTimeSeries(state, region, patientType, null, null, new int[0]);
+        // Clamp the range to the days of the series
+        final int firstDay = from == null || from.isBefore(matrix.getFirstDay()) ? 0 : matrix.indexOf(from);
+        final int lastDay = to == null || to.isAfter(matrix.getLastDay()) ? matrix.getDayCount() - 1
+                : matrix.indexOf(to);
+        if (firstDay < 0 || lastDay < 0)
+            return new LocationTimeSeries(state, region, patientType, null, null, new int[0]);
+        return new LocationTimeSeries(state, region, patientType, matrix.getDay(firstDay), matrix.getDay(lastDay),
+                matrix.getRange(location, firstDay, lastDay));
+    }
+
+    /**
+     * @return null if there is no such location
+     * @throws IllegalArgumentException if the window is not positive
+     */
+    public MovingAverageSeries getMovingAverages(final PatientType patientType, final String state,
+            final String region, final int window) {
+        return getMovingAverages(csvService.getSnapshot(), patientType, state, region, window);
+    }
+
+    static MovingAverageSeries getMovingAverages(final DatasetSnapshot snapshot, final PatientType patientType,
+            final String state, final String region, final int window) {
+        final LocationSnapshot location = snapshot.getLocation(new LocationKey(state, region));
+        if (location == null)
+            return null;
+        final double[] averages = DerivedMetrics.movingAverages(location.getPatientsStats(patientType).getPastCounts(),
+                window);
+        final LocalDate firstDay = snapshot.getFirstDay(patientType);
+        return new MovingAverageSeries(state, region, patientType, window,
+                averages.length == 0 || firstDay == null ? null : firstDay.plusDays(window), averages);
+    }
+
+    /**
+     * @return null if the series does not cover the day
+     */
+    public DayCounts getCountsOn(final PatientType patientType, final LocalDate day) {
+        return getCountsOn(csvService.getSnapshot(), patientType, day);
+    }
+
+    static DayCounts getCountsOn(final DatasetSnapshot snapshot, final PatientType patientType, final LocalDate day) {
+        final SeriesMatrix matrix = snapshot.getSeriesMatrix(patientType);
+        final int dayIndex = matrix == null ? -1 : matrix.indexOf(day);
+        if (dayIndex < 0)
+            return null;
+        final int[] column = matrix.getColumn(dayIndex);
+        final List<LocationSnapshot> locations = snapshot.getLocations();
+        final List<LocationCount> counts = new ArrayList<>(column.length);
+        for (int location = 0; location < column.length; location++)
+            counts.add(new LocationCount(locations.get(location).getState(), locations.get(location).getRegion(),
+                    column[location]));
+        return new DayCounts(day, patientType, counts);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.covid19.services.helpers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Downloads the upstream time series. A single long lived client is shared by all downloads so that connections are
+ * reused, and multiplexed when the server speaks HTTP/2.
+ * <p>
+ * The ETag and Last-Modified validators of the last successfully processed response of each URI are kept, so that
+ * unchanged series can be requested conditionally and answered with 304 Not Modified.
+ */
+@Component
+public class CovidDataFetcher {
+
+    private final HttpClient httpClient;
+
+    private final Duration requestTimeout;
+
+    private final Map<String, String> eTagByUri = new ConcurrentHashMap<>();
+
+    private final Map<String, String> lastModifiedByUri = new ConcurrentHashMap<>();
+
+    public CovidDataFetcher(@Value("${covid.fetch.connect-timeout:10s}") final Duration connectTimeout,
+            @Value("${covid.fetch.request-timeout:60s}") final Duration requestTimeout) {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> fetchAsync(final String uri,
+            final HttpResponse.BodyHandler<T> bodyHandler) {
+        return httpClient.sendAsync(newRequestBuilder(uri).build(), bodyHandler);
+    }
+
+    /**
+     * Same as {@link #fetchAsync(String, HttpResponse.BodyHandler)}, but answered with 304 Not Modified and an empty
+     * body if the URI has not changed since the response passed to {@link #rememberValidators(String, HttpHeaders)}.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> fetchIfModifiedAsync(final String uri,
+            final HttpResponse.BodyHandler<T> bodyHandler) {
+        final HttpRequest.Builder requestBuilder = newRequestBuilder(uri);
+        final String eTag = eTagByUri.get(uri);
+        if (eTag != null)
+            requestBuilder.header("If-None-Match", eTag);
+        final String lastModified = lastModifiedByUri.get(uri);
+        if (lastModified != null)
+            requestBuilder.header("If-Modified-Since", lastModified);
+        return httpClient.sendAsync(requestBuilder.build(), bodyHandler);
+    }
+
+    /**
+     * To be called only once the response has been processed successfully, otherwise a failed refresh would never be
+     * retried as long as upstream does not change.
+     */
+    public void rememberValidators(final String uri, final HttpHeaders headers) {
+        headers.firstValue("ETag").ifPresent(eTag -> eTagByUri.put(uri, eTag));
+        headers.firstValue("Last-Modified").ifPresent(lastModified -> lastModifiedByUri.put(uri, lastModified));
+    }
+
+    private HttpRequest.Builder newRequestBuilder(final String uri) {
+        return HttpRequest.newBuilder().uri(URI.create(uri)).timeout(requestTimeout).GET();
+    }
+
+}
@@ -1,33 +1,49 @@
 package com.covid19.services.helpers;
 
 import java.io.IOException;
-import java.io.StringReader;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.covid19.constants.CovidConstants;
-import com.covid19.models.DeadPatientsStats;
-import com.covid19.models.InfectedPatientsStats;
+import com.covid19.models.LocationKey;
 import com.covid19.models.LocationStats;
 import com.covid19.models.PatientType;
-import com.covid19.models.PatientsStats;
-import com.covid19.models.RecoveredPatientsStats;
+import com.covid19.models.PatientsStatsMetadata;
+import com.covid19.repositories.LocationStatsBatchWriter;
 import com.covid19.repositories.LocationStatsRepository;
+import com.covid19.repositories.LocationStatsWriteReport;
+import com.covid19.repositories.PatientsStatsMetadataRepository;
+import com.covid19.services.DatasetSnapshotService;
 
 @Component
 public class CovidDataServiceHandler {
@@ -36,175 +52,240 @@ public class CovidDataServiceHandler {
     @Autowired
     private LocationStatsRepository locationRepo;
 
-    @Async("tpDbTaskExecutor")
-    public void triggerAsyncDbUpdate() {
-        LOGGER.info("Starting async DB update at {}", LocalDateTime.now());
-        fetchPrepareAndUpdateWholeDb();
-        LOGGER.info("Async thread updated DB at {}", LocalDateTime.now());
+    @Autowired
+    private LocationStatsBatchWriter batchWriter;
+
+    @Autowired
+    private CovidDataFetcher covidDataFetcher;
+
+    @Autowired
+    private PatientsStatsMetadataRepository metadataRepo;
+
+    @Autowired
+    private DatasetSnapshotService snapshotService;
+
+    @Autowired
+    private DataFreshnessTracker freshnessTracker;
+
+    @Value("${covid.ingest.incremental:true}")
+    private boolean incrementalIngest;
+
+    @Value("${covid.ingest.days-to-verify:7}")
+    private int daysToVerify;
+
+    @Value("${covid.ingest.full-rebuild-interval:7d}")
+    private Duration fullRebuildInterval;
+
+    // System.nanoTime() at the end of the last full rebuild, null until the first one since startup
+    private volatile Long lastFullRebuildNanos;
+
+    private final Counter skippedRefreshCounter;
+
+    public CovidDataServiceHandler(final MeterRegistry meterRegistry) {
+        skippedRefreshCounter = meterRegistry.counter("covid.refresh.skipped", "reason", "not-modified");
     }
 
-    public void fetchPrepareAndUpdateWholeDb() {
-        final List<LocationStats> fetchedDataForInfected = fetchFromUriByPatientType(
-                CovidConstants.CONFIRMED_INFECTED_URI,
-                PatientType.INFECTED);
-        final List<LocationStats> fetchedDataForDead = fetchFromUriByPatientType(CovidConstants.CONFIRMED_DEATHS_URI,
-                PatientType.DEAD);
-        final List<LocationStats> fetchedDataForRecovered = fetchFromUriByPatientType(
-                CovidConstants.CONFIRMED_RECOVERED_URI,
-                PatientType.RECOVERED);
-
-        // Ideally infected stats will be largest as people first get infected and gradually proceed to either dead or recovered stage
-        final int maxSize = getMax(fetchedDataForInfected.size(), fetchedDataForDead.size(),
-                fetchedDataForRecovered.size());
-
-        final int countOfPreviousRecords = fetchedDataForInfected.get(0).getInfectedPatientsStats().getPastCounts()
-                .size();
-        for (int i = 0; i < maxSize; i++) {
-            final String state = fetchedDataForInfected.get(i).getState();
-            final String region = fetchedDataForInfected.get(i).getRegion();
-            final LocationStats prepareStats = getPreviousData(fetchedDataForInfected.get(i));
-            prepareStats.setInfectedPatientsStats(fetchedDataForInfected.get(i).getInfectedPatientsStats());
-
-            Optional<LocationStats> findFirstPatientsStats = fetchedDataForDead.stream()
-                    .filter(deathStats -> state.equals(deathStats.getState()) && region.equals(deathStats.getRegion()))
-                    .findFirst();
-
-            if (findFirstPatientsStats.isPresent())
-                prepareStats.setDeadPatientsStats(findFirstPatientsStats.get().getDeadPatientsStats());
-            else
-                prepareStats.setDeadPatientsStats(
-                        new DeadPatientsStats().initialiseToMatchForEmptyDbRow(countOfPreviousRecords));
-
-            findFirstPatientsStats = fetchedDataForRecovered.stream()
-                    .filter(recoveredStats -> state.equals(recoveredStats.getState())
-                            && region.equals(recoveredStats.getRegion()))
-                    .findFirst();
-
-            if (findFirstPatientsStats.isPresent())
-                prepareStats.setRecoveredPatientsStats(findFirstPatientsStats.get().getRecoveredPatientsStats());
-            else
-                prepareStats.setRecoveredPatientsStats(
-                        new RecoveredPatientsStats().initialiseToMatchForEmptyDbRow(countOfPreviousRecords));
-
-            prepareStats.setUpdatedOn(LocalDateTime.now());
-            LOGGER.debug("Saving data as: {}", prepareStats);
-            locationRepo.save(prepareStats);
+    /**
+     * Runs a whole refresh on the calling thread. Use {@link RefreshCoordinator} instead, so that refreshes do not
+     * overlap.
+     */
+    public RefreshOutcome fetchPrepareAndUpdateWholeDb() {
+        final Map<PatientType, PatientsStatsMetadata> storedMetadata = loadStoredMetadata();
+        final LocationStatsMerger merger = new LocationStatsMerger(loadExistingStats(), daysToVerify);
+        // Appending only verifies the last stored days, so once in a while all series are downloaded and rebuilt to
+        // pick up revisions of older days. Rebuilt rows whose counts did not change are not written.
+        final boolean fullRebuild = isFullRebuildDue();
+        if (fullRebuild)
+            LOGGER.info("Rebuilding all series, as done every {}", fullRebuildInterval);
+
+        // Download all series concurrently, so that a refresh takes as long as the slowest download, and merge each
+        // row as soon as it is parsed instead of holding whole responses in memory.
+        final Map<PatientType, CompletableFuture<SeriesFetchResult>> pendingResultByPatientType = new EnumMap<>(
+                PatientType.class);
+        for (final PatientType patientType : PatientType.values())
+            pendingResultByPatientType.put(patientType, streamFromUriByPatientTypeAsync(
+                    getUriByPatientType(patientType), patientType, fullRebuild ? null : storedMetadata.get(patientType),
+                    merger::merge));
+
+        final List<SeriesFetchResult> fetchResults = new ArrayList<>();
+        for (final PatientType patientType : PatientType.values()) {
+            final SeriesFetchResult fetchResult = pendingResultByPatientType.get(patientType).join();
+            LOGGER.debug("Fetched : {}", fetchResult);
+            fetchResults.add(fetchResult);
+        }
+        // Merging an empty or partial series would overwrite locations with zero counts, so keep what is in DB.
+        if (fetchResults.stream()
+                .anyMatch(fetchResult -> fetchResult.getStatus() == SeriesFetchResult.Status.FAILED)) {
+            LOGGER.error("Skipping DB update as some series could not be fetched : {}", fetchResults);
+            return RefreshOutcome.FAILED;
         }
+        if (fetchResults.stream()
+                .allMatch(fetchResult -> fetchResult.getStatus() == SeriesFetchResult.Status.NOT_MODIFIED)) {
+            LOGGER.info("Skipping DB update as no series has been modified upstream");
+            skippedRefreshCounter.increment();
+            recordIngest(fetchResults, storedMetadata, LocalDateTime.now());
+            return RefreshOutcome.NOT_MODIFIED;
+        }
+
+        for (final SeriesFetchResult fetchResult : fetchResults)
+            if (fetchResult.getStatus() == SeriesFetchResult.Status.NOT_MODIFIED)
+                merger.markNotModified(fetchResult.getPatientType());
+        final LocationStatsMergeResult mergeResult = merger.complete();
+        LOGGER.info("Merged stats : {}", mergeResult);
+
+        final LocalDateTime updatedOn = LocalDateTime.now();
+        final LocationStatsWriteReport writeReport = batchWriter.write(mergeResult.getChangedStats(),
+                mergeResult.getUnchangedCount(), updatedOn);
+        LOGGER.info("Updated DB : {}", writeReport);
+
+        recordIngest(fetchResults, storedMetadata, updatedOn);
+        for (final SeriesFetchResult fetchResult : fetchResults)
+            if (fetchResult.getStatus() == SeriesFetchResult.Status.FETCHED)
+                covidDataFetcher.rememberValidators(getUriByPatientType(fetchResult.getPatientType()),
+                        fetchResult.getHeaders());
+        snapshotService.rebuild();
+        if (fullRebuild)
+            lastFullRebuildNanos = System.nanoTime();
+        return RefreshOutcome.UPDATED;
     }
 
-    private LocationStats getPreviousData(final LocationStats locationStats) {
-        final LocationStats preparedStats;
-        final List<LocationStats> dataFromDb = locationRepo.findByStateAndRegion(locationStats.getState(),
-                locationStats.getRegion());
-        if (dataFromDb == null || dataFromDb.isEmpty()) {
-            preparedStats = new LocationStats();
-            preparedStats.setState(locationStats.getState());
-            preparedStats.setRegion(locationStats.getRegion());
+    private boolean isFullRebuildDue() {
+        final Long fullRebuildNanos = lastFullRebuildNanos;
+        return incrementalIngest && (fullRebuildNanos == null
+                || System.nanoTime() - fullRebuildNanos >= fullRebuildInterval.toNanos());
+    }
+
+    /**
+     * Stores the days of the fetched series, and marks all series as ingested whether fetched or not modified.
+     */
+    private void recordIngest(final List<SeriesFetchResult> fetchResults,
+            final Map<PatientType, PatientsStatsMetadata> storedMetadata, final LocalDateTime ingestedOn) {
+        final List<PatientsStatsMetadata> ingestedMetadata = new ArrayList<>();
+        for (final SeriesFetchResult fetchResult : fetchResults) {
+            // Series are requested conditionally only when their metadata is stored
+            final PatientsStatsMetadata metadata = fetchResult.getStatus() == SeriesFetchResult.Status.FETCHED
+                    ? toMetadata(fetchResult, ingestedOn)
+                    : storedMetadata.get(fetchResult.getPatientType());
+            metadata.setIngestedOn(ingestedOn);
+            ingestedMetadata.add(metadata);
         }
-        else
-            preparedStats = dataFromDb.get(0);
-        // Always update so that any modifications to lat/long n original data is reflected
-        preparedStats.setLatitude(locationStats.getLatitude());
-        preparedStats.setLongitude(locationStats.getLongitude());
-        return preparedStats;
+        metadataRepo.saveAll(ingestedMetadata);
+        for (final PatientsStatsMetadata metadata : ingestedMetadata)
+            freshnessTracker.recordIngest(metadata.getPatientType(), ingestedOn);
     }
 
-    private int getMax(final int i, final int j, final int k) {
-        return i > j ? (i > k ? i : k) : (j > k ? j : k);
+    private Map<PatientType, PatientsStatsMetadata> loadStoredMetadata() {
+        final Map<PatientType, PatientsStatsMetadata> storedMetadata = new EnumMap<>(PatientType.class);
+        for (final PatientsStatsMetadata metadata : metadataRepo.findAll())
+            storedMetadata.put(metadata.getPatientType(), metadata);
+        return storedMetadata;
     }
 
-    public List<LocationStats> fetchFromUriByPatientType(final String uri, final PatientType patientType) {
-        final HttpClient httpClient = HttpClient.newHttpClient();
-        final HttpRequest request = HttpRequest.newBuilder().uri(URI.create(uri)).build();
-        HttpResponse<String> response;
-        // TODO : Maybe use retry on few types of exceptions
-        try {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return parseCSVResponse(new StringReader(response.body()), patientType);
-        } catch (IOException | InterruptedException e) {
-            LOGGER.error("Exception occurred : ", e);
-            return Collections.emptyList();
-        }
+    private PatientsStatsMetadata toMetadata(final SeriesFetchResult fetchResult, final LocalDateTime updatedOn) {
+        final List<LocalDate> days = fetchResult.getDays();
+        final PatientsStatsMetadata metadata = new PatientsStatsMetadata();
+        metadata.setPatientType(fetchResult.getPatientType());
+        metadata.setFirstDay(days.isEmpty() ? null : days.get(0));
+        metadata.setLastDay(days.isEmpty() ? null : days.get(days.size() - 1));
+        metadata.setDayCount(days.size());
+        metadata.setUpdatedOn(updatedOn);
+        return metadata;
     }
 
-    private List<LocationStats> parseCSVResponse(final StringReader stringReader, final PatientType patientType)
-            throws IOException {
-        final Iterable<CSVRecord> records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(stringReader);
-        final List<LocationStats> statsList = new ArrayList<>();
-        for (final CSVRecord record : records) {
-            final LocationStats latestStats = prepareStats(record, patientType);
-            statsList.add(latestStats);
-        }
-        return statsList;
+    private Map<LocationKey, LocationStats> loadExistingStats() {
+        final Map<LocationKey, LocationStats> existingStats = new HashMap<>();
+        for (final LocationStats locationStats : locationRepo.findAllWithPatientsStats())
+            existingStats.put(LocationKey.of(locationStats), locationStats);
+        LOGGER.debug("Loaded {} existing locations from DB", existingStats.size());
+        return existingStats;
     }
 
-    private LocationStats prepareStats(final CSVRecord record, final PatientType patientType) {
-        final String state = record.get(CovidConstants.PROVINCE_STATE);
-        final String region = record.get(CovidConstants.COUNTRY_REGION);
-        final String latitude = record.get(CovidConstants.LATITUDE);
-        final String longitude = record.get(CovidConstants.LONGITUDE);
-        LocationStats locationStats = null;
-        final List<LocationStats> tempList = locationRepo.findByStateAndRegion(state, region);
-        if (tempList == null || tempList.isEmpty()) {
-            locationStats = new LocationStats();
-            locationStats.setState(state);
-            locationStats.setRegion(region);
-        } else {
-            locationStats = tempList.get(0);
-            if (locationStats == null) {
-                locationStats = new LocationStats();
-                locationStats.setState(state);
-                locationStats.setRegion(region);
+    private String getUriByPatientType(final PatientType patientType) {
+        return switch (patientType) {
+            case DEAD -> CovidConstants.CONFIRMED_DEATHS_URI;
+            case INFECTED -> CovidConstants.CONFIRMED_INFECTED_URI;
+            case RECOVERED -> CovidConstants.CONFIRMED_RECOVERED_URI;
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+    }
+
+    /**
+     * Parses the response body while it is being downloaded and hands every row to the consumer, on the thread
+     * reading the response.
+     *
+     * @param storedMetadata metadata of the series stored by the last refresh, to request the series conditionally
+     *        and to append only new days to stored rows, null to always download and rebuild the whole series
+     */
+    public CompletableFuture<SeriesFetchResult> streamFromUriByPatientTypeAsync(final String uri,
+            final PatientType patientType, final PatientsStatsMetadata storedMetadata,
+            final Consumer<TimeSeriesRow> rowConsumer) {
+        final HttpResponse.BodyHandler<InputStream> bodyHandler = HttpResponse.BodyHandlers.ofInputStream();
+        // TODO : Maybe use retry on few types of exceptions
+        return (storedMetadata != null ? covidDataFetcher.fetchIfModifiedAsync(uri, bodyHandler)
+                : covidDataFetcher.fetchAsync(uri, bodyHandler))
+                .thenApply(response -> {
+                    try (InputStream body = response.body()) {
+                        if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED)
+                            return SeriesFetchResult.notModified(patientType);
+                        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                            LOGGER.error("Unexpected status {} while fetching {}", response.statusCode(), uri);
+                            return SeriesFetchResult.failed(patientType);
+                        }
+                        return parseCSVResponse(new InputStreamReader(body, StandardCharsets.UTF_8), patientType,
+                                response.headers(), storedMetadata, rowConsumer);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    LOGGER.error("Exception occurred : ", e);
+                    return SeriesFetchResult.failed(patientType);
+                });
+    }
+
+    private SeriesFetchResult parseCSVResponse(final Reader reader, final PatientType patientType,
+            final HttpHeaders headers, final PatientsStatsMetadata storedMetadata,
+            final Consumer<TimeSeriesRow> rowConsumer) throws IOException {
+        int rowCount = 0;
+        // Records are read lazily from the reader, only the current one is held in memory
+        try (CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader)) {
+            final List<LocalDate> days = parseDays(records.getHeaderNames());
+            final boolean appendable = isAppendable(storedMetadata, days);
+            for (final CSVRecord record : records) {
+                rowConsumer.accept(new TimeSeriesRow(patientType, record, appendable));
+                rowCount++;
             }
+            return SeriesFetchResult.fetched(patientType, rowCount, headers, days);
         }
-        // Always update so that any modifications to lat/long n original data is reflected
-        locationStats.setLatitude(latitude);
-        locationStats.setLongitude(longitude);
-        updateLocationStatsByPatientsStats(record, locationStats, patientType);
-        locationStats.setUpdatedOn(LocalDateTime.now());
-        return locationStats;
     }
 
-    private void updateLocationStatsByPatientsStats(final CSVRecord record, final LocationStats locationStats,
-            final PatientType patientType) {
-        PatientsStats patientsStats = null;
-        switch (patientType) {
-            case DEAD :
-                patientsStats = prepareAndUpdatePatientsStats(record, new DeadPatientsStats());
-                locationStats.setDeadPatientsStats((DeadPatientsStats) patientsStats);
-                break;
-            case INFECTED :
-                patientsStats = prepareAndUpdatePatientsStats(record, new InfectedPatientsStats());
-                locationStats.setInfectedPatientsStats((InfectedPatientsStats) patientsStats);
-                break;
-            case RECOVERED :
-                patientsStats = prepareAndUpdatePatientsStats(record, new RecoveredPatientsStats());
-                locationStats.setRecoveredPatientsStats((RecoveredPatientsStats) patientsStats);
-                break;
-            default :
-                throw new IllegalArgumentException("Unexpected value: " + patientType);
+    private List<LocalDate> parseDays(final List<String> headerNames) {
+        final DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern(CovidConstants.DAY_COLUMN_FORMAT);
+        final List<LocalDate> days = new ArrayList<>();
+        try {
+            for (int i = CovidConstants.INDEX_OF_FIRST_DAY_COLUMN; i < headerNames.size(); i++)
+                days.add(LocalDate.parse(headerNames.get(i), dayFormatter));
+        } catch (final DateTimeParseException e) {
+            LOGGER.warn("Unexpected day column, days of this series will not be tracked : ", e);
+            return Collections.emptyList();
         }
+        return days;
     }
 
-    private PatientsStats prepareAndUpdatePatientsStats(final CSVRecord record, final PatientsStats patientsStats) {
-        final int indexOfStartingColumn = 5;
-        // int lastColumn=(int) records.spliterator().getExactSizeIfKnown();
-        final int indexOfLastColumn = record.size() - 1;
-
-        final int latestCount = Integer.parseInt(record.get(indexOfLastColumn));
-        int differenceSincePreviousDay = latestCount - Integer.parseInt(record.get(indexOfLastColumn - 1));
-        // For newly infected locations, previous count will be 0.
-        // For cured people and no newly infected, count will decrease from previous day.
-        differenceSincePreviousDay = differenceSincePreviousDay < 0 ? 0 : differenceSincePreviousDay;
-        patientsStats.setLatestCount(latestCount);
-        patientsStats.setDifferenceSincePreviousDay(differenceSincePreviousDay);
-
-        final List<Integer> listOfDailyCount = new ArrayList<>();
-        for (int i = indexOfStartingColumn; i <= indexOfLastColumn; i++)
-            listOfDailyCount.add(Integer.parseInt(record.get(i)));
-        patientsStats.setPastCounts(listOfDailyCount);
-        patientsStats.setUpdatedOn(LocalDateTime.now());
-        return patientsStats;
+    /**
+     * New days can be appended to the stored rows as long as the days stored by the last refresh are still the leading
+     * days of the series.
+     */
+    private boolean isAppendable(final PatientsStatsMetadata storedMetadata, final List<LocalDate> days) {
+        if (!incrementalIngest || storedMetadata == null || storedMetadata.getDayCount() == 0)
+            return false;
+        final int storedDayCount = storedMetadata.getDayCount();
+        if (days.size() >= storedDayCount && days.get(0).equals(storedMetadata.getFirstDay())
+                && days.get(storedDayCount - 1).equals(storedMetadata.getLastDay()))
+            return true;
+        LOGGER.info("Days of {} series do not line up with the stored ones, rebuilding whole series",
+                storedMetadata.getPatientType());
+        return false;
     }
 
 }
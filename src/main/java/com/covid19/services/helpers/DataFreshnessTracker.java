@@ -0,0 +1,88 @@
+package com.covid19.services.helpers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStatsMetadata;
+import com.covid19.repositories.PatientsStatsMetadataRepository;
+
+/**
+ * Keeps in memory when each series was last ingested, i.e. stored or found unchanged upstream, so that checking for
+ * stale data does not hit DB. Loaded from the metadata table at startup, which the refresh keeps up to date.
+ */
+@Component
+public class DataFreshnessTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataFreshnessTracker.class);
+
+    private final Map<PatientType, LocalDateTime> ingestedOnByPatientType = new ConcurrentHashMap<>();
+
+    @Value("${covid.data.staleness-threshold:12h}")
+    private Duration stalenessThreshold;
+
+    @Autowired
+    private PatientsStatsMetadataRepository metadataRepo;
+
+    @PostConstruct
+    public void loadIngestTimes() {
+        for (final PatientsStatsMetadata metadata : metadataRepo.findAll())
+            if (metadata.getIngestedOn() != null)
+                ingestedOnByPatientType.put(metadata.getPatientType(), metadata.getIngestedOn());
+        LOGGER.debug("Loaded ingest times : {}", ingestedOnByPatientType);
+    }
+
+    public void recordIngest(final PatientType patientType, final LocalDateTime ingestedOn) {
+        ingestedOnByPatientType.merge(patientType, ingestedOn,
+                (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * @return null if the series has never been ingested
+     */
+    public LocalDateTime getIngestedOn(final PatientType patientType) {
+        return ingestedOnByPatientType.get(patientType);
+    }
+
+    /**
+     * @return ingest time of the least recently ingested series, null if any series has never been ingested
+     */
+    public LocalDateTime getOldestIngestedOn() {
+        LocalDateTime oldestIngestedOn = null;
+        for (final PatientType patientType : PatientType.values()) {
+            final LocalDateTime ingestedOn = ingestedOnByPatientType.get(patientType);
+            if (ingestedOn == null)
+                return null;
+            if (oldestIngestedOn == null || ingestedOn.isBefore(oldestIngestedOn))
+                oldestIngestedOn = ingestedOn;
+        }
+        return oldestIngestedOn;
+    }
+
+    public boolean isFresh(final PatientType patientType) {
+        final LocalDateTime ingestedOn = ingestedOnByPatientType.get(patientType);
+        return ingestedOn != null && !ingestedOn.isBefore(LocalDateTime.now().minus(stalenessThreshold));
+    }
+
+    /**
+     * @return whether all series are fresh
+     */
+    public boolean isFresh() {
+        final LocalDateTime oldestIngestedOn = getOldestIngestedOn();
+        return oldestIngestedOn != null && !oldestIngestedOn.isBefore(LocalDateTime.now().minus(stalenessThreshold));
+    }
+
+    public Duration getStalenessThreshold() {
+        return stalenessThreshold;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.covid19.services.helpers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationStats;
+import com.covid19.models.PatientType;
+
+public class LocationStatsMergeResult {
+
+    private final List<LocationStats> mergedStats;
+
+    /**
+     * New locations and locations whose stats differ from what is stored in DB, i.e. the ones to be written back.
+     */
+    private final List<LocationStats> changedStats;
+
+    /**
+     * Locations present in at least one of the other series but not in the keyed one.
+     */
+    private final Map<PatientType, Set<LocationKey>> missingKeysByPatientType;
+
+    public LocationStatsMergeResult(final List<LocationStats> mergedStats, final List<LocationStats> changedStats,
+            final Map<PatientType, Set<LocationKey>> missingKeysByPatientType) {
+        this.mergedStats = mergedStats;
+        this.changedStats = changedStats;
+        this.missingKeysByPatientType = missingKeysByPatientType;
+    }
+
+    public List<LocationStats> getMergedStats() {
+        return mergedStats;
+    }
+
+    public List<LocationStats> getChangedStats() {
+        return changedStats;
+    }
+
+    public int getUnchangedCount() {
+        return mergedStats.size() - changedStats.size();
+    }
+
+    public Set<LocationKey> getMissingKeys(final PatientType patientType) {
+        return missingKeysByPatientType.getOrDefault(patientType, Collections.emptySet());
+    }
+
+    public boolean hasMissingKeys() {
+        return missingKeysByPatientType.values().stream().anyMatch(missingKeys -> !missingKeys.isEmpty());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("LocationStatsMergeResult [mergedStats=");
+        builder.append(mergedStats.size());
+        builder.append(", changedStats=");
+        builder.append(changedStats.size());
+        builder.append(", missingKeysByPatientType=");
+        builder.append(missingKeysByPatientType);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
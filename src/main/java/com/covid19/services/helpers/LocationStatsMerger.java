@@ -0,0 +1,189 @@
+package com.covid19.services.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.covid19.models.DailyCounts;
+import com.covid19.models.DeadPatientsStats;
+import com.covid19.models.InfectedPatientsStats;
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationStats;
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStats;
+import com.covid19.models.RecoveredPatientsStats;
+
+/**
+ * Joins the infected, dead and recovered series of one refresh on (state, region) in a single linear pass. Locations
+ * already stored in DB are updated in place, so that they are written back as updates of the same rows.
+ * <p>
+ * Create one per refresh. Merging is synchronised so that rows of different series can be merged while they are being
+ * downloaded concurrently.
+ */
+public class LocationStatsMerger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationStatsMerger.class);
+
+    private final Map<LocationKey, LocationStats> existingStats;
+
+    private final Map<LocationKey, LocationStats> mergedStats = new LinkedHashMap<>();
+
+    private final Set<LocationKey> changedKeys = new HashSet<>();
+
+    private final Set<PatientType> notModifiedPatientTypes = EnumSet.noneOf(PatientType.class);
+
+    private final Map<PatientType, Set<LocationKey>> mergedKeysByPatientType = new EnumMap<>(PatientType.class);
+
+    private final Map<PatientType, Integer> lengthOfPastCountsByPatientType = new EnumMap<>(PatientType.class);
+
+    /**
+     * Number of stored trailing days to compare with upstream before appending new days to a row, so that revisions
+     * of recent history are detected and the row is rebuilt instead. Older revisions are left to the periodic full
+     * rebuild, whose rows are not appendable.
+     */
+    private final int daysToVerify;
+
+    private int appendedRowCount;
+
+    private int rebuiltRowCount;
+
+    public LocationStatsMerger() {
+        this(Collections.emptyMap(), 0);
+    }
+
+    public LocationStatsMerger(final Map<LocationKey, LocationStats> existingStats, final int daysToVerify) {
+        this.existingStats = existingStats;
+        this.daysToVerify = daysToVerify;
+        for (final PatientType patientType : PatientType.values())
+            mergedKeysByPatientType.put(patientType, new HashSet<>());
+    }
+
+    public synchronized void merge(final TimeSeriesRow row) {
+        final PatientType patientType = row.getPatientType();
+        final LocationKey key = row.getKey();
+        if (!mergedKeysByPatientType.get(patientType).add(key)) {
+            LOGGER.warn("Ignoring duplicate {} row for {}", patientType, key);
+            return;
+        }
+        lengthOfPastCountsByPatientType.putIfAbsent(patientType, row.getDayCount());
+
+        LocationStats locationStats = mergedStats.get(key);
+        if (locationStats == null) {
+            locationStats = existingStats.get(key);
+            if (locationStats == null) {
+                // Not in DB yet, the fetched stats can be saved as they are
+                mergedStats.put(key, row.toLocationStats());
+                changedKeys.add(key);
+                return;
+            }
+            mergedStats.put(key, locationStats);
+        }
+        // Always update so that any modifications to lat/long n original data is reflected
+        if (!Objects.equals(locationStats.getLatitude(), row.getLatitude())
+                || !Objects.equals(locationStats.getLongitude(), row.getLongitude())) {
+            locationStats.setLatitude(row.getLatitude());
+            locationStats.setLongitude(row.getLongitude());
+            changedKeys.add(key);
+        }
+        final PatientsStats existingPatientsStats = locationStats.getPatientsStats(patientType);
+        if (existingPatientsStats == null) {
+            locationStats.setPatientsStats(row.toPatientsStats());
+            changedKeys.add(key);
+        } else if (row.isAppendable() && isAppendable(existingPatientsStats.getPastCounts(), row)) {
+            final DailyCounts storedCounts = existingPatientsStats.getPastCounts();
+            if (row.getDayCount() > storedCounts.size()) {
+                existingPatientsStats.updateCounts(storedCounts.append(row.getCounts(storedCounts.size())));
+                changedKeys.add(key);
+                appendedRowCount++;
+            }
+        } else {
+            final PatientsStats patientsStats = row.toPatientsStats();
+            if (!existingPatientsStats.hasSameCountsAs(patientsStats)) {
+                existingPatientsStats.updateFrom(patientsStats);
+                changedKeys.add(key);
+            }
+            rebuiltRowCount++;
+        }
+    }
+
+    private boolean isAppendable(final DailyCounts storedCounts, final TimeSeriesRow row) {
+        final int storedDayCount = storedCounts == null ? 0 : storedCounts.size();
+        if (storedDayCount == 0 || storedDayCount > row.getDayCount())
+            return false;
+        for (int day = Math.max(storedDayCount - daysToVerify, 0); day < storedDayCount; day++)
+            if (storedCounts.get(day) != row.getCount(day))
+                return false;
+        return true;
+    }
+
+    /**
+     * Marks a series which has not changed upstream since the last refresh. Its rows are not merged, so locations are
+     * not reported missing from it and keep the counts stored in DB.
+     */
+    public synchronized void markNotModified(final PatientType patientType) {
+        notModifiedPatientTypes.add(patientType);
+    }
+
+    /**
+     * Reports the series a location is missing from and fills them with zero counts unless the location already has
+     * counts for it in DB, so that no location is dropped.
+     */
+    public synchronized LocationStatsMergeResult complete() {
+        final Map<PatientType, Set<LocationKey>> missingKeysByPatientType = new EnumMap<>(PatientType.class);
+        for (final PatientType patientType : PatientType.values()) {
+            final Set<LocationKey> mergedKeys = mergedKeysByPatientType.get(patientType);
+            final Set<LocationKey> missingKeys = new LinkedHashSet<>();
+            final int lengthOfPastCounts = getLengthOfPastCounts(patientType);
+            for (final Map.Entry<LocationKey, LocationStats> entry : mergedStats.entrySet()) {
+                if (mergedKeys.contains(entry.getKey()))
+                    continue;
+                if (!notModifiedPatientTypes.contains(patientType))
+                    missingKeys.add(entry.getKey());
+                if (entry.getValue().getPatientsStats(patientType) == null) {
+                    entry.getValue().setPatientsStats(newEmptyPatientsStats(patientType, lengthOfPastCounts));
+                    changedKeys.add(entry.getKey());
+                }
+            }
+            if (!missingKeys.isEmpty())
+                LOGGER.warn("{} location(s) missing from {} series : {}", missingKeys.size(), patientType,
+                        missingKeys);
+            missingKeysByPatientType.put(patientType, missingKeys);
+        }
+        LOGGER.info("Appended new days to {} row(s), rebuilt {} row(s)", appendedRowCount, rebuiltRowCount);
+        final List<LocationStats> changedStats = new ArrayList<>(changedKeys.size());
+        mergedStats.forEach((key, locationStats) -> {
+            if (changedKeys.contains(key))
+                changedStats.add(locationStats);
+        });
+        return new LocationStatsMergeResult(new ArrayList<>(mergedStats.values()), changedStats,
+                missingKeysByPatientType);
+    }
+
+    private int getLengthOfPastCounts(final PatientType patientType) {
+        final Integer lengthOfPastCounts = lengthOfPastCountsByPatientType.get(patientType);
+        if (lengthOfPastCounts != null)
+            return lengthOfPastCounts;
+        // Ideally all series have the same number of days, so borrow the length from any other series
+        return lengthOfPastCountsByPatientType.values().stream().findFirst().orElse(0);
+    }
+
+    private PatientsStats newEmptyPatientsStats(final PatientType patientType, final int lengthOfPastCounts) {
+        return switch (patientType) {
+            case DEAD -> new DeadPatientsStats().initialiseToMatchForEmptyDbRow(lengthOfPastCounts);
+            case INFECTED -> new InfectedPatientsStats().initialiseToMatchForEmptyDbRow(lengthOfPastCounts);
+            case RECOVERED -> new RecoveredPatientsStats().initialiseToMatchForEmptyDbRow(lengthOfPastCounts);
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.covid19.services.helpers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs refreshes of the dataset one at a time. Triggers arriving while a refresh is in flight join it instead of
+ * starting another one, so a burst of requests on stale data downloads the series once. After a failed refresh,
+ * requests do not trigger another one until the retry interval has passed, so that an upstream outage does not make
+ * every request start a refresh.
+ */
+@Component
+public class RefreshCoordinator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshCoordinator.class);
+
+    private final AtomicReference<CompletableFuture<RefreshOutcome>> inFlight = new AtomicReference<>();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    // Written by the refreshing thread only, read by status requests
+    private volatile LocalDateTime runningSince;
+
+    private volatile LocalDateTime lastStartedOn;
+
+    private volatile LocalDateTime lastCompletedOn;
+
+    private volatile Long lastDurationMillis;
+
+    private volatile RefreshOutcome lastOutcome;
+
+    private volatile String lastError;
+
+    // System.nanoTime() at the end of the last refresh if it failed or could not start, null if it succeeded
+    private volatile Long lastFailureNanos;
+
+    @Value("${covid.refresh.retry-after:5m}")
+    private Duration retryAfter;
+
+    @Autowired
+    private CovidDataServiceHandler covidHandler;
+
+    @Autowired
+    @Qualifier("tpDbTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    /**
+     * Starts a refresh in background unless one is already in flight.
+     *
+     * @return future of the refresh in flight, completed exceptionally if the refresh threw
+     */
+    public CompletableFuture<RefreshOutcome> triggerRefresh() {
+        while (true) {
+            final CompletableFuture<RefreshOutcome> running = inFlight.get();
+            if (running != null) {
+                coalescedCount.incrementAndGet();
+                return running;
+            }
+            final CompletableFuture<RefreshOutcome> refresh = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, refresh))
+                continue;
+            try {
+                taskExecutor.execute(() -> runRefresh(refresh));
+            } catch (final TaskRejectedException e) {
+                LOGGER.warn("Could not start refresh : {}", e.getMessage());
+                // A saturated executor backs off like a failed refresh, rather than being retried by every request
+                lastFailureNanos = System.nanoTime();
+                inFlight.set(null);
+                refresh.completeExceptionally(e);
+            }
+            return refresh;
+        }
+    }
+
+    /**
+     * Same as {@link #triggerRefresh()}, for refreshes wanted by requests rather than asked for explicitly. Joins the
+     * refresh in flight if any, but does not start one within the retry interval of a failed refresh.
+     *
+     * @return null if no refresh was started
+     */
+    public CompletableFuture<RefreshOutcome> triggerBackgroundRefresh() {
+        final CompletableFuture<RefreshOutcome> running = inFlight.get();
+        if (running == null && isBackingOff()) {
+            LOGGER.debug("Not refreshing before {} after the last failure", retryAfter);
+            return null;
+        }
+        return triggerRefresh();
+    }
+
+    private boolean isBackingOff() {
+        final Long failureNanos = lastFailureNanos;
+        return failureNanos != null && System.nanoTime() - failureNanos < retryAfter.toNanos();
+    }
+
+    private void runRefresh(final CompletableFuture<RefreshOutcome> refresh) {
+        final LocalDateTime startedOn = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        runningSince = startedOn;
+        lastStartedOn = startedOn;
+        refreshCount.incrementAndGet();
+        LOGGER.info("Starting refresh at {}", startedOn);
+        RefreshOutcome outcome = null;
+        Throwable error = null;
+        try {
+            outcome = covidHandler.fetchPrepareAndUpdateWholeDb();
+        } catch (final RuntimeException | Error e) {
+            LOGGER.error("Refresh failed", e);
+            error = e;
+        }
+        lastDurationMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        lastCompletedOn = LocalDateTime.now();
+        lastOutcome = outcome;
+        lastError = error == null ? null : error.toString();
+        lastFailureNanos = error != null || outcome == RefreshOutcome.FAILED ? System.nanoTime() : null;
+        runningSince = null;
+        LOGGER.info("Refresh ended with {} in {} ms", outcome, lastDurationMillis);
+        // Cleared before completing, so that callers reacting to completion can trigger the next refresh
+        inFlight.set(null);
+        if (error == null)
+            refresh.complete(outcome);
+        else
+            refresh.completeExceptionally(error);
+    }
+
+    public boolean isRunning() {
+        return inFlight.get() != null;
+    }
+
+    public RefreshStatus getStatus() {
+        final LocalDateTime since = runningSince;
+        return new RefreshStatus(isRunning() ? RefreshStatus.State.RUNNING : RefreshStatus.State.IDLE, since,
+                lastStartedOn, lastCompletedOn, lastDurationMillis, lastOutcome, lastError, refreshCount.get(),
+                coalescedCount.get());
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.covid19.services.helpers;
+
+public enum RefreshOutcome {
+    /** Changes of at least one series were stored. */
+    UPDATED,
+    /** No series changed upstream since the last refresh. */
+    NOT_MODIFIED,
+    /** Some series could not be fetched, DB was left as it was. */
+    FAILED
+}
@@ -0,0 +1,122 @@
+package com.covid19.services.helpers;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the refreshes as seen by {@link RefreshCoordinator} at one point in time.
+ */
+public final class RefreshStatus {
+
+    public enum State {
+        IDLE, RUNNING
+    }
+
+    private final State state;
+
+    private final LocalDateTime runningSince;
+
+    private final LocalDateTime lastStartedOn;
+
+    private final LocalDateTime lastCompletedOn;
+
+    private final Long lastDurationMillis;
+
+    private final RefreshOutcome lastOutcome;
+
+    private final String lastError;
+
+    private final long refreshCount;
+
+    private final long coalescedCount;
+
+    RefreshStatus(final State state, final LocalDateTime runningSince, final LocalDateTime lastStartedOn,
+            final LocalDateTime lastCompletedOn, final Long lastDurationMillis, final RefreshOutcome lastOutcome,
+            final String lastError, final long refreshCount, final long coalescedCount) {
+        this.state = state;
+        this.runningSince = runningSince;
+        this.lastStartedOn = lastStartedOn;
+        this.lastCompletedOn = lastCompletedOn;
+        this.lastDurationMillis = lastDurationMillis;
+        this.lastOutcome = lastOutcome;
+        this.lastError = lastError;
+        this.refreshCount = refreshCount;
+        this.coalescedCount = coalescedCount;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return start of the refresh in flight, null when idle
+     */
+    public LocalDateTime getRunningSince() {
+        return runningSince;
+    }
+
+    public LocalDateTime getLastStartedOn() {
+        return lastStartedOn;
+    }
+
+    public LocalDateTime getLastCompletedOn() {
+        return lastCompletedOn;
+    }
+
+    public Long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    /**
+     * @return null if the last refresh threw instead of returning an outcome
+     */
+    public RefreshOutcome getLastOutcome() {
+        return lastOutcome;
+    }
+
+    /**
+     * @return exception thrown by the last refresh, null if it returned
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return number of refreshes run since startup
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * @return number of triggers which joined a refresh already in flight instead of starting one
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("RefreshStatus [state=");
+        builder.append(state);
+        builder.append(", runningSince=");
+        builder.append(runningSince);
+        builder.append(", lastStartedOn=");
+        builder.append(lastStartedOn);
+        builder.append(", lastCompletedOn=");
+        builder.append(lastCompletedOn);
+        builder.append(", lastDurationMillis=");
+        builder.append(lastDurationMillis);
+        builder.append(", lastOutcome=");
+        builder.append(lastOutcome);
+        builder.append(", lastError=");
+        builder.append(lastError);
+        builder.append(", refreshCount=");
+        builder.append(refreshCount);
+        builder.append(", coalescedCount=");
+        builder.append(coalescedCount);
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.covid19.services.helpers;
+
+import java.net.http.HttpHeaders;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import com.covid19.models.PatientType;
+
+/**
+ * Outcome of downloading and parsing one upstream time series.
+ */
+public class SeriesFetchResult {
+
+    public enum Status {
+        FETCHED, NOT_MODIFIED, FAILED
+    }
+
+    private final PatientType patientType;
+
+    private final Status status;
+
+    private final int rowCount;
+
+    /**
+     * Response headers, holding the validators to use for the next conditional request.
+     */
+    private final HttpHeaders headers;
+
+    /**
+     * Days of the daily count columns, in order.
+     */
+    private final List<LocalDate> days;
+
+    private SeriesFetchResult(final PatientType patientType, final Status status, final int rowCount,
+            final HttpHeaders headers, final List<LocalDate> days) {
+        this.patientType = patientType;
+        this.status = status;
+        this.rowCount = rowCount;
+        this.headers = headers;
+        this.days = days;
+    }
+
+    public static SeriesFetchResult fetched(final PatientType patientType, final int rowCount,
+            final HttpHeaders headers, final List<LocalDate> days) {
+        // An empty series is no data to rely on
+        if (rowCount == 0)
+            return failed(patientType);
+        return new SeriesFetchResult(patientType, Status.FETCHED, rowCount, headers, days);
+    }
+
+    public static SeriesFetchResult notModified(final PatientType patientType) {
+        return new SeriesFetchResult(patientType, Status.NOT_MODIFIED, 0, null, Collections.emptyList());
+    }
+
+    public static SeriesFetchResult failed(final PatientType patientType) {
+        return new SeriesFetchResult(patientType, Status.FAILED, 0, null, Collections.emptyList());
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public List<LocalDate> getDays() {
+        return days;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("SeriesFetchResult [patientType=");
+        builder.append(patientType);
+        builder.append(", status=");
+        builder.append(status);
+        builder.append(", rowCount=");
+        builder.append(rowCount);
+        builder.append(", dayCount=");
+        builder.append(days.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.covid19.services.helpers;
+
+import java.time.LocalDateTime;
+
+import org.apache.commons.csv.CSVRecord;
+
+import com.covid19.constants.CovidConstants;
+import com.covid19.models.DailyCounts;
+import com.covid19.models.DeadPatientsStats;
+import com.covid19.models.InfectedPatientsStats;
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationStats;
+import com.covid19.models.PatientType;
+import com.covid19.models.PatientsStats;
+import com.covid19.models.RecoveredPatientsStats;
+
+/**
+ * One row of an upstream time series. Daily counts are parsed from the CSV record only when asked for, so that an
+ * incremental refresh parses just the days which are verified or not stored yet.
+ * <p>
+ * Only valid while the CSV record is the current one, i.e. while the row is being merged.
+ */
+public class TimeSeriesRow {
+
+    private final PatientType patientType;
+
+    private final CSVRecord record;
+
+    /**
+     * Whether the days stored by previous refreshes are still the leading days of this series, i.e. new days can be
+     * appended to stored counts. Otherwise the whole row has to be rebuilt.
+     */
+    private final boolean appendable;
+
+    public TimeSeriesRow(final PatientType patientType, final CSVRecord record, final boolean appendable) {
+        this.patientType = patientType;
+        this.record = record;
+        this.appendable = appendable;
+    }
+
+    public PatientType getPatientType() {
+        return patientType;
+    }
+
+    public String getState() {
+        return record.get(CovidConstants.PROVINCE_STATE);
+    }
+
+    public String getRegion() {
+        return record.get(CovidConstants.COUNTRY_REGION);
+    }
+
+    public String getLatitude() {
+        return record.get(CovidConstants.LATITUDE);
+    }
+
+    public String getLongitude() {
+        return record.get(CovidConstants.LONGITUDE);
+    }
+
+    public LocationKey getKey() {
+        return new LocationKey(getState(), getRegion());
+    }
+
+    public boolean isAppendable() {
+        return appendable;
+    }
+
+    public int getDayCount() {
+        return record.size() - CovidConstants.INDEX_OF_FIRST_DAY_COLUMN;
+    }
+
+    public int getCount(final int day) {
+        return Integer.parseInt(record.get(CovidConstants.INDEX_OF_FIRST_DAY_COLUMN + day));
+    }
+
+    /**
+     * @return counts of the days from {@code fromDay} (inclusive) onwards
+     */
+    public int[] getCounts(final int fromDay) {
+        final int dayCount = getDayCount();
+        final int[] counts = new int[Math.max(dayCount - fromDay, 0)];
+        for (int day = fromDay; day < dayCount; day++)
+            counts[day - fromDay] = getCount(day);
+        return counts;
+    }
+
+    public LocationStats toLocationStats() {
+        final LocationStats locationStats = new LocationStats();
+        locationStats.setState(getState());
+        locationStats.setRegion(getRegion());
+        locationStats.setLatitude(getLatitude());
+        locationStats.setLongitude(getLongitude());
+        locationStats.setPatientsStats(toPatientsStats());
+        locationStats.setUpdatedOn(LocalDateTime.now());
+        return locationStats;
+    }
+
+    public PatientsStats toPatientsStats() {
+        final PatientsStats patientsStats = switch (patientType) {
+            case DEAD -> new DeadPatientsStats();
+            case INFECTED -> new InfectedPatientsStats();
+            case RECOVERED -> new RecoveredPatientsStats();
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+        patientsStats.updateCounts(DailyCounts.wrap(getCounts(0)));
+        return patientsStats;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.covid19.controllers;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.PatientType;
+import com.covid19.services.CovidDataService;
+import com.covid19.services.DatasetSnapshotService;
+
+class RenderedPageCacheFilterTest {
+
+    private final RenderedPageCacheFilter filter = new RenderedPageCacheFilter();
+
+    private DatasetSnapshot snapshot = snapshot(1);
+
+    private int renderCount;
+
+    // Stands for the controller, rendering the version of the snapshot it serves
+    private final FilterChain controller = (request, response) -> {
+        renderCount++;
+        response.setContentType("text/html;charset=UTF-8");
+        response.getOutputStream().write(("<p>" + snapshot.getVersion() + "</p>").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "csvService", new FixedDataService());
+        ReflectionTestUtils.setField(filter, "snapshotService", new FixedSnapshotService());
+    }
+
+    @Test
+    void servesNotModifiedForSameETag() throws IOException, ServletException {
+        final MockHttpServletResponse first = get("/infected", null, null);
+        final MockHttpServletResponse second = get("/infected", null, first.getHeader(HttpHeaders.ETAG));
+
+        assertEquals(200, first.getStatus());
+        assertEquals("<p>1</p>", first.getContentAsString());
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+        assertEquals(1, renderCount);
+    }
+
+    @Test
+    void rendersAgainForNewSnapshotVersion() throws IOException, ServletException {
+        final MockHttpServletResponse first = get("/infected", null, null);
+        snapshot = snapshot(2);
+        final MockHttpServletResponse second = get("/infected", null, first.getHeader(HttpHeaders.ETAG));
+
+        assertEquals(200, second.getStatus());
+        assertEquals("<p>2</p>", second.getContentAsString());
+        assertNotEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, renderCount);
+    }
+
+    @Test
+    void leavesInvalidSortUncached() throws IOException, ServletException {
+        final MockHttpServletResponse first = get("/infected", "BOGUS", null);
+        get("/infected", "BOGUS", null);
+
+        assertNull(first.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, renderCount);
+        // Any order the controller would resolve to the default one shares its entry
+        get("/infected", null, null);
+        get("/infected", "LATEST_COUNT", null);
+        assertEquals(3, renderCount);
+    }
+
+    private MockHttpServletResponse get(final String path, final String sort, final String ifNoneMatch)
+            throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (sort != null)
+            request.setParameter("sort", sort);
+        if (ifNoneMatch != null)
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+
+    private static DatasetSnapshot snapshot(final long version) {
+        return DatasetSnapshot.of(version,
+                List.of(location("", "India").at("20.5", "78.9").counts(PatientType.INFECTED, 1, 3).build()));
+    }
+
+    private final class FixedDataService extends CovidDataService {
+
+        @Override
+        public DatasetSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public boolean isStale() {
+            return false;
+        }
+
+        @Override
+        public boolean isRefreshing() {
+            return false;
+        }
+
+        @Override
+        public LocalDateTime getIngestedOn(final PatientType patientType) {
+            return null;
+        }
+
+    }
+
+    private final class FixedSnapshotService extends DatasetSnapshotService {
+
+        @Override
+        public DatasetSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+    }
+
+}
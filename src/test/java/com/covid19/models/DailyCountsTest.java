@@ -0,0 +1,42 @@
+package com.covid19.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DailyCountsTest {
+
+    @Test
+    void appendsWithoutModifyingOriginal() {
+        final DailyCounts counts = DailyCounts.of(1, 5);
+
+        final DailyCounts appended = counts.append(new int[] { 9, 12 });
+
+        assertEquals(DailyCounts.of(1, 5), counts);
+        assertEquals(DailyCounts.of(1, 5, 9, 12), appended);
+        assertEquals(12, appended.getLatest());
+        assertEquals(9, appended.getPrevious());
+    }
+
+    @Test
+    void comparesOnlyCountsInSize() {
+        final DailyCounts wrapped = DailyCounts.wrap(new int[] { 1, 5, 0, 0 }, 2);
+
+        assertEquals(DailyCounts.of(1, 5), wrapped);
+        assertEquals(DailyCounts.of(1, 5).hashCode(), wrapped.hashCode());
+        assertNotEquals(DailyCounts.of(1, 5, 0), wrapped);
+        assertThrows(IndexOutOfBoundsException.class, () -> wrapped.get(2));
+    }
+
+    @Test
+    void providesBoxedView() {
+        assertEquals(List.of(1, 5), DailyCounts.of(1, 5).asList());
+        assertEquals(List.of(0, 0, 0), DailyCounts.zeros(3).asList());
+        assertEquals(0, DailyCounts.empty().getLatest());
+    }
+
+}
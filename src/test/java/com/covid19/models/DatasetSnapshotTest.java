@@ -0,0 +1,126 @@
+package com.covid19.models;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DatasetSnapshotTest {
+
+    @Test
+    void summarisesTotalsAndRegions() {
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(3, List.of(locationStats("Quebec", "Canada", 2, 7),
+                locationStats("", "India", 10, 15), locationStats("Ontario", "Canada", 1, 4)));
+
+        final DatasetSummary summary = snapshot.getSummary();
+
+        assertEquals(3, summary.getVersion());
+        assertEquals(3, summary.getLocationCount());
+        assertEquals(26, summary.getTotals(PatientType.INFECTED).getCurrentCount());
+        assertEquals(13, summary.getTotals(PatientType.INFECTED).getNewCount());
+        assertEquals(0, summary.getTotals(PatientType.DEAD).getCurrentCount());
+        assertEquals(2, summary.getRegions().size());
+        final RegionSummary canada = summary.getRegions().get(0);
+        assertEquals("Canada", canada.getRegion());
+        assertEquals(2, canada.getLocationCount());
+        assertEquals(11, canada.getCounts(PatientType.INFECTED).getCurrentCount());
+        assertEquals(8, canada.getCounts(PatientType.INFECTED).getNewCount());
+        assertEquals("Ontario", snapshot.getLocations().get(0).getState());
+    }
+
+    @Test
+    void summarisesEmptySnapshot() {
+        assertEquals(0, DatasetSnapshot.empty().getSummary().getTotals(PatientType.RECOVERED).getCurrentCount());
+        assertEquals(0, DatasetSnapshot.empty().getSummary().getRegions().size());
+    }
+
+    @Test
+    void keepsLocationsOrderedByMetric() {
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1, List.of(locationStats("Quebec", "Canada", 2, 7),
+                locationStats("", "India", 10, 15), locationStats("Ontario", "Canada", 1, 4),
+                locationStats("", "Chile", 7, 7)));
+
+        assertEquals(List.of("Ontario", "Quebec", "", ""),
+                states(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.NAME)));
+        assertEquals(List.of("India", "Canada", "Chile", "Canada"),
+                regions(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.LATEST_COUNT)));
+        // Ties stay in name order
+        assertEquals(List.of("Quebec", "", "Ontario", ""),
+                states(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.DAILY_DELTA)));
+        assertEquals(snapshot.getLocations(), snapshot.getLocations(PatientType.DEAD, LocationSortKey.LATEST_COUNT));
+        assertTrue(new LocationStats().compareTo(locationStats("", "India", 0, 0)) < 0);
+        assertTrue(locationStats("Ontario", "Canada", 0, 0).compareTo(locationStats("Quebec", "Canada", 0, 0)) < 0);
+    }
+
+    @Test
+    void ordersLocationsByDerivedMetrics() {
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1, List.of(locationStats("", "Peru", 5, 9, 20),
+                locationStats("", "India", 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14),
+                locationStats("", "Chile", 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 8)));
+
+        assertEquals(List.of("India", "Chile", "Peru"),
+                regions(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.MOVING_AVERAGE_7)));
+        // Locations the metric is unknown for come last
+        assertEquals(List.of("Chile", "India", "Peru"),
+                regions(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.WEEKLY_GROWTH)));
+        assertEquals(List.of("Chile", "India", "Peru"),
+                regions(snapshot.getLocations(PatientType.INFECTED, LocationSortKey.DOUBLING_TIME)));
+    }
+
+    @Test
+    void rollsUpDailyCountsByRegion() {
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1, List.of(locationStats("Quebec", "Canada", 2, 7),
+                locationStats("", "India", 10, 15), locationStats("Ontario", "Canada", 1, 4)));
+
+        final RegionRollup canada = snapshot.getRegionRollup("Canada");
+
+        assertEquals(DailyCounts.of(3, 11), canada.getDailyCounts(PatientType.INFECTED));
+        assertEquals(DailyCounts.empty(), canada.getDailyCounts(PatientType.DEAD));
+        assertEquals(11, canada.getSummary().getCounts(PatientType.INFECTED).getCurrentCount());
+        assertEquals(List.of("Ontario", "Quebec"), states(canada.getLocations()));
+        assertEquals(DailyCounts.of(10, 15), snapshot.getRegionRollup("India").getDailyCounts(PatientType.INFECTED));
+        assertEquals(2, snapshot.getRegionRollups().size());
+        assertNull(snapshot.getRegionRollup("Chile"));
+    }
+
+    @Test
+    void sumsDailyTotalsOverLocations() {
+        final Map<PatientType, LocalDate> firstDays = Map.of(PatientType.INFECTED, LocalDate.of(2020, 1, 23));
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+                List.of(locationStats("Quebec", "Canada", 2, 7, 9), locationStats("", "India", 10, 15)), firstDays);
+
+        // Locations with fewer days count as zeros
+        assertArrayEquals(new long[] { 12, 22, 9 }, snapshot.getDailyTotals(PatientType.INFECTED).getTotals());
+        assertEquals(LocalDate.of(2020, 1, 25), snapshot.getDailyTotals(PatientType.INFECTED).getLastDay());
+        assertEquals(0, DatasetSnapshot.of(2, List.of(), firstDays).getDailyTotals(PatientType.INFECTED)
+                .getDayCount());
+        assertNull(snapshot.getDailyTotals(PatientType.DEAD));
+    }
+
+    private static List<String> states(final List<LocationSnapshot> locations) {
+        final List<String> states = new ArrayList<>();
+        for (final LocationSnapshot location : locations)
+            states.add(location.getState());
+        return states;
+    }
+
+    private static List<String> regions(final List<LocationSnapshot> locations) {
+        final List<String> regions = new ArrayList<>();
+        for (final LocationSnapshot location : locations)
+            regions.add(location.getRegion());
+        return regions;
+    }
+
+    private static LocationStats locationStats(final String state, final String region, final int... counts) {
+        return location(state, region).counts(PatientType.INFECTED, counts).build();
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.covid19.models;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class DerivedMetricsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void derivesMetricsFromLatestWeeks() {
+        final DerivedMetrics metrics = DerivedMetrics.of(DailyCounts.of(1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 8));
+
+        assertEquals(6 / 7d, metrics.getMovingAverage7(), DELTA);
+        assertEquals(7 / 14d, metrics.getMovingAverage14(), DELTA);
+        assertEquals(500, metrics.getWeeklyGrowthPercent(), DELTA);
+        assertEquals(3.5, metrics.getDoublingTime(), DELTA);
+    }
+
+    @Test
+    void leavesUndefinedMetricsNull() {
+        final DerivedMetrics shortSeries = DerivedMetrics.of(DailyCounts.of(0, 0, 0, 0, 0, 0, 0, 4, 4));
+
+        assertEquals(4 / 7d, shortSeries.getMovingAverage7(), DELTA);
+        assertNull(shortSeries.getMovingAverage14());
+        assertNull(shortSeries.getWeeklyGrowthPercent());
+        assertNull(shortSeries.getDoublingTime());
+        assertNull(DerivedMetrics.of(DailyCounts.of(1, 2, 3)).getMovingAverage7());
+    }
+
+    @Test
+    void slidesMovingAverageOverSeries() {
+        assertArrayEquals(new double[] { 2, 2.5, 4 }, DerivedMetrics.movingAverages(DailyCounts.of(1, 3, 5, 8, 13), 2),
+                DELTA);
+        assertEquals(0, DerivedMetrics.movingAverages(DailyCounts.of(1, 3), 2).length);
+        assertThrows(IllegalArgumentException.class, () -> DerivedMetrics.movingAverages(DailyCounts.of(1, 3), 0));
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.covid19.models;
+
+/**
+ * Builds locations for tests. Coordinates are left unset unless given, and a location only has the series whose
+ * counts are given.
+ */
+public final class LocationStatsBuilder {
+
+    private final LocationStats locationStats = new LocationStats();
+
+    private LocationStatsBuilder(final String state, final String region) {
+        locationStats.setState(state);
+        locationStats.setRegion(region);
+    }
+
+    public static LocationStatsBuilder location(final String state, final String region) {
+        return new LocationStatsBuilder(state, region);
+    }
+
+    public LocationStatsBuilder at(final String latitude, final String longitude) {
+        locationStats.setLatitude(latitude);
+        locationStats.setLongitude(longitude);
+        return this;
+    }
+
+    /**
+     * @param counts from the first day of the series, none for a location without counts yet
+     */
+    public LocationStatsBuilder counts(final PatientType patientType, final int... counts) {
+        final PatientsStats patientsStats = switch (patientType) {
+            case INFECTED -> new InfectedPatientsStats();
+            case DEAD -> new DeadPatientsStats();
+            case RECOVERED -> new RecoveredPatientsStats();
+            default -> throw new IllegalArgumentException("Unexpected value: " + patientType);
+        };
+        patientsStats.updateCounts(DailyCounts.of(counts));
+        locationStats.setPatientsStats(patientsStats);
+        return this;
+    }
+
+    public LocationStats build() {
+        return locationStats;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.covid19.models;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialIndexTest {
+
+    @Test
+    void findsLocationsWithinBox() {
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+                List.of(location("", "France").at("46.2276", "2.2137").build(),
+                        location("", "Fiji").at("-17.7134", "178.0650").build(),
+                        location("", "Samoa").at("-13.759", "-172.1046").build(),
+                        location("", "Italy").at("41.8719", "12.5674").build(),
+                        location("", "Diamond Princess").at("0.0", "0.0").build(),
+                        location("", "Unknown").at("", "").build()));
+
+        assertEquals(List.of("France", "Italy"), regions(snapshot, snapshot.getSpatialIndex().within(35, -10, 60, 30)));
+        // Spans the antimeridian
+        assertEquals(List.of("Fiji", "Samoa"),
+                regions(snapshot, snapshot.getSpatialIndex().within(-20, 170, -10, -170)));
+        assertEquals(4, snapshot.getSpatialIndex().size());
+        assertEquals(4, snapshot.getSpatialIndex().within(-90, -180, 90, 180).length);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getSpatialIndex().within(60, -10, 35, 30));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getSpatialIndex().within(35, -190, 60, 30));
+    }
+
+    @Test
+    void findsSameNearestLocationsAsFullScan() {
+        final Random random = new Random(19);
+        final List<LocationStats> locationStats = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            locationStats.add(location("", "Region " + i).at(String.valueOf(random.nextDouble() * 180 - 90),
+                    String.valueOf(random.nextDouble() * 360 - 180)).build());
+        final DatasetSnapshot snapshot = DatasetSnapshot.of(1, locationStats);
+
+        for (int query = 0; query < 200; query++) {
+            final double latitude = random.nextDouble() * 180 - 90;
+            final double longitude = random.nextDouble() * 360 - 180;
+            final Integer[] scanned = new Integer[snapshot.getLocations().size()];
+            for (int i = 0; i < scanned.length; i++)
+                scanned[i] = i;
+            Arrays.sort(scanned, Comparator.comparingDouble(i -> distanceKm(snapshot, i, latitude, longitude)));
+
+            final int[] nearest = snapshot.getSpatialIndex().nearest(latitude, longitude, 5);
+
+            assertEquals(5, nearest.length);
+            for (int i = 0; i < nearest.length; i++)
+                assertEquals(distanceKm(snapshot, scanned[i], latitude, longitude),
+                        distanceKm(snapshot, nearest[i], latitude, longitude), 1e-9);
+        }
+    }
+
+    @Test
+    void measuresGreatCircleDistance() {
+        assertEquals(343.5, SpatialIndex.distanceKm(51.5074, -0.1278, 48.8566, 2.3522), 1);
+        // Across the antimeridian and over the pole
+        assertEquals(SpatialIndex.distanceKm(0, 179, 0, -179), SpatialIndex.distanceKm(0, 0, 0, 2), 1e-9);
+        assertEquals(Math.PI * SpatialIndex.EARTH_RADIUS_KM / 9, SpatialIndex.distanceKm(80, 0, 80, 180), 1e-6);
+        assertArrayEquals(new int[0], DatasetSnapshot.empty().getSpatialIndex().nearest(0, 0, 3));
+    }
+
+    private static double distanceKm(final DatasetSnapshot snapshot, final int location, final double latitude,
+            final double longitude) {
+        return SpatialIndex.distanceKm(latitude, longitude, snapshot.getLocations().get(location).getLatitudeDegrees(),
+                snapshot.getLocations().get(location).getLongitudeDegrees());
+    }
+
+    private static List<String> regions(final DatasetSnapshot snapshot, final int[] locations) {
+        final List<String> regions = new ArrayList<>();
+        for (final int location : locations)
+            regions.add(snapshot.getLocations().get(location).getRegion());
+        return regions;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.covid19.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class PastCountsColumnMigrationTest {
+
+    @Test
+    void parsesCounts() {
+        assertArrayEquals(new int[] { 0, 12, -3, 2147483647, -2147483648 },
+                PastCountsColumnMigration.parseCounts(" 0, 1 2,-3,+2147483647,\t-2147483648,,"));
+        assertArrayEquals(new int[0], PastCountsColumnMigration.parseCounts(""));
+    }
+
+    @Test
+    void rejectsMalformedCounts() {
+        assertThrows(NumberFormatException.class, () -> PastCountsColumnMigration.parseCounts("1,,2"));
+        assertThrows(NumberFormatException.class, () -> PastCountsColumnMigration.parseCounts("1,-,2"));
+        assertThrows(NumberFormatException.class, () -> PastCountsColumnMigration.parseCounts("1,2a"));
+        assertThrows(NumberFormatException.class, () -> PastCountsColumnMigration.parseCounts("1,--2"));
+        assertThrows(NumberFormatException.class, () -> PastCountsColumnMigration.parseCounts("2147483648"));
+    }
+
+    @Test
+    void matchesLegacyParsing() {
+        final String joined = IntStream.range(0, 400).mapToObj(day -> String.valueOf(day * day * 7))
+                .collect(Collectors.joining(","));
+
+        // As the comma separated column used to be read
+        final int[] legacyCounts = Stream.of(joined.replaceAll("\\s", "").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        assertArrayEquals(legacyCounts, PastCountsColumnMigration.parseCounts(joined));
+    }
+
+}
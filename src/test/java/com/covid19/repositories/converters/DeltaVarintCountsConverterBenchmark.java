@@ -0,0 +1,70 @@
+package com.covid19.repositories.converters;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.covid19.models.DailyCounts;
+
+/**
+ * Not a rigorous benchmark, only logs how reading and writing a year of counts in the binary columns compares with the
+ * comma separated text columns they replaced. Left out of the unit tests, run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DeltaVarintCountsConverterBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeltaVarintCountsConverterBenchmark.class);
+
+    private final DeltaVarintCountsConverter converter = new DeltaVarintCountsConverter();
+
+    @Test
+    void benchmarkAgainstTextColumns() {
+        final int[] values = new int[365];
+        for (int day = 0; day < values.length; day++)
+            values[day] = day * day * 7;
+        final DailyCounts counts = DailyCounts.wrap(values);
+        final byte[] bytes = converter.convertToDatabaseColumn(counts);
+        final String joined = joinAsText(counts);
+        final int iterations = 20000;
+        long checksum = 0;
+        for (int round = 0; round < 2; round++) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                checksum += parseText(joined).length;
+            final long textReadNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                checksum += converter.convertToEntityAttribute(bytes).size();
+            final long readNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                checksum += joinAsText(counts).length();
+            final long textWriteNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                checksum += converter.convertToDatabaseColumn(counts).length;
+            final long writeNanos = System.nanoTime() - startTime;
+
+            LOGGER.info("Round {} : read {} us/op (text {} us/op), write {} us/op (text {} us/op)", round,
+                    readNanos / iterations / 1000.0, textReadNanos / iterations / 1000.0,
+                    writeNanos / iterations / 1000.0, textWriteNanos / iterations / 1000.0);
+        }
+        LOGGER.debug("Checksum {}", checksum);
+    }
+
+    // As the text columns used to be written and read
+    private static String joinAsText(final DailyCounts counts) {
+        return counts.asList().stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static int[] parseText(final String joined) {
+        return Stream.of(joined.replaceAll("\\s", "").split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.covid19.repositories.converters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DailyCounts;
+
+class DeltaVarintCountsConverterTest {
+
+    private final DeltaVarintCountsConverter converter = new DeltaVarintCountsConverter();
+
+    @Test
+    void roundTripsCounts() {
+        final DailyCounts counts = DailyCounts.of(0, 1, 5, 5, 3, 130, 70000, Integer.MAX_VALUE, Integer.MIN_VALUE, -1);
+
+        assertEquals(counts, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(counts)));
+    }
+
+    @Test
+    void roundTripsEmptyCounts() {
+        assertEquals(DailyCounts.empty(),
+                converter.convertToEntityAttribute(converter.convertToDatabaseColumn(DailyCounts.empty())));
+        assertEquals(DailyCounts.empty(), converter.convertToEntityAttribute(converter.convertToDatabaseColumn(null)));
+        assertEquals(DailyCounts.empty(), converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void isSmallerThanCommaSeparatedText() {
+        final int[] counts = new int[365];
+        for (int day = 0; day < counts.length; day++)
+            counts[day] = 100000 + day * 250;
+
+        final int binaryLength = converter.convertToDatabaseColumn(DailyCounts.wrap(counts)).length;
+        final int textLength = Arrays.stream(counts).mapToObj(String::valueOf).collect(Collectors.joining(","))
+                .length();
+
+        assertTrue(binaryLength * 3 < textLength, binaryLength + " bytes vs " + textLength + " chars");
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        final byte[] bytes = converter.convertToDatabaseColumn(DailyCounts.of(1, 2));
+        bytes[0] = DeltaVarintCountsConverter.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(bytes));
+    }
+
+    @Test
+    void rejectsTruncatedBytes() {
+        final byte[] bytes = converter.convertToDatabaseColumn(DailyCounts.of(1, 70000));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convertToEntityAttribute(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.covid19.services;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.PatientType;
+
+class DatasetExportServiceTest {
+
+    private final DatasetExportService exportService = new DatasetExportService();
+
+    // Deaths start being reported a day after infections
+    private final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+            List.of(location("", "India").at("20.5", "78.9").counts(PatientType.INFECTED, 1, 3, 5)
+                            .counts(PatientType.DEAD, 0, 1).build(),
+                    location("Quebec", "Canada").at("45.5", "-73.5").counts(PatientType.INFECTED, 2, 2, 4)
+                            .counts(PatientType.DEAD, 1, 1).build()),
+            Map.of(PatientType.INFECTED, LocalDate.of(2020, 1, 22), PatientType.DEAD, LocalDate.of(2020, 1, 23)));
+
+    @Test
+    void exportsCsvWithDayColumnsOfAllSeries() throws IOException {
+        assertEquals("Series,Province/State,Country/Region,Lat,Long,2020-01-22,2020-01-23,2020-01-24\r\n"
+                + "INFECTED,Quebec,Canada,45.5,-73.5,2,2,4\r\n"
+                + "INFECTED,,India,20.5,78.9,1,3,5\r\n"
+                + "DEAD,Quebec,Canada,45.5,-73.5,,1,1\r\n"
+                + "DEAD,,India,20.5,78.9,,0,1\r\n",
+                export(List.of(PatientType.INFECTED, PatientType.DEAD), ExportFormat.CSV));
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws IOException {
+        assertEquals("{\"series\":\"DEAD\",\"state\":\"Quebec\",\"region\":\"Canada\",\"latitude\":\"45.5\","
+                + "\"longitude\":\"-73.5\",\"firstDay\":\"2020-01-23\",\"counts\":[1,1]}\n"
+                + "{\"series\":\"DEAD\",\"state\":\"\",\"region\":\"India\",\"latitude\":\"20.5\","
+                + "\"longitude\":\"78.9\",\"firstDay\":\"2020-01-23\",\"counts\":[0,1]}\n",
+                export(List.of(PatientType.DEAD), ExportFormat.NDJSON));
+    }
+
+    private String export(final List<PatientType> patientTypes, final ExportFormat format) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(snapshot, patientTypes, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.covid19.services;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.Leaderboard;
+import com.covid19.models.LeaderboardEntry;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+
+class LeaderboardServiceTest {
+
+    private final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+            List.of(location("", "India").counts(PatientType.INFECTED, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14)
+                            .build(),
+                    location("", "Chile").counts(PatientType.INFECTED, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 8)
+                            .build(),
+                    location("", "Peru").counts(PatientType.INFECTED, 5, 9, 20).build()));
+
+    @Test
+    void ranksTopLocations() {
+        final Leaderboard top = LeaderboardService.getTop(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, 2);
+
+        assertEquals(List.of("Peru", "India"), regions(top));
+        assertEquals(2, top.getEntries().get(1).getRank());
+        assertEquals(14d, top.getEntries().get(1).getValue());
+        assertEquals(3, LeaderboardService.getTop(snapshot, PatientType.INFECTED, LocationSortKey.LATEST_COUNT, 10)
+                .getEntries().size());
+    }
+
+    @Test
+    void leavesOutLocationsWithUnknownMetric() {
+        final Leaderboard top = LeaderboardService.getTop(snapshot, PatientType.INFECTED,
+                LocationSortKey.DOUBLING_TIME, 10);
+
+        assertEquals(List.of("Chile", "India"), regions(top));
+        assertEquals(3.5, top.getEntries().get(0).getValue(), 1e-9);
+        assertEquals(0, LeaderboardService.getTop(snapshot, PatientType.DEAD, LocationSortKey.MOVING_AVERAGE_14, 10)
+                .getEntries().size());
+    }
+
+    @Test
+    void rejectsInvalidQuery() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LeaderboardService.getTop(snapshot, PatientType.INFECTED, LocationSortKey.NAME, 10));
+        assertThrows(IllegalArgumentException.class, () -> LeaderboardService.getTop(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, LeaderboardService.MAX_SIZE + 1));
+    }
+
+    private static List<String> regions(final Leaderboard leaderboard) {
+        final List<String> regions = new ArrayList<>();
+        for (final LeaderboardEntry entry : leaderboard.getEntries())
+            regions.add(entry.getRegion());
+        return regions;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.covid19.services;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.LocationCounts;
+import com.covid19.models.LocationPage;
+import com.covid19.models.LocationSortKey;
+import com.covid19.models.PatientType;
+
+class LocationQueryServiceTest {
+
+    private final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+            List.of(location("Quebec", "Canada").counts(PatientType.INFECTED, 0, 7).build(),
+                    location("", "India").counts(PatientType.INFECTED, 0, 15).build(),
+                    location("Ontario", "Canada").counts(PatientType.INFECTED, 0, 4).build(),
+                    location("", "Chile").counts(PatientType.INFECTED, 0, 7).build(),
+                    location("Alberta", "Canada").counts(PatientType.INFECTED, 0, 9).build()));
+
+    @Test
+    void pagesThroughMetricOrder() {
+        final LocationPage first = LocationQueryService.getPage(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, null, null, 2);
+        final LocationPage second = LocationQueryService.getPage(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, null, first.getNextCursor(), 2);
+        final LocationPage third = LocationQueryService.getPage(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, null, second.getNextCursor(), 2);
+
+        assertEquals(List.of("India", "Alberta"), names(first));
+        assertEquals(List.of("Quebec", "Chile"), names(second));
+        assertEquals(List.of("Ontario"), names(third));
+        assertNull(third.getNextCursor());
+        assertEquals(15, first.getLocations().get(0).getCountsByPatientType().get(PatientType.INFECTED)
+                .getLatestCount());
+    }
+
+    @Test
+    void resumesFromCursorOfAnotherVersion() {
+        final LocationPage first = LocationQueryService.getPage(snapshot, PatientType.INFECTED, LocationSortKey.NAME,
+                null, null, 2);
+        // Alberta is gone, the next page still starts after it
+        final DatasetSnapshot refreshed = DatasetSnapshot.of(2,
+                List.of(location("Quebec", "Canada").counts(PatientType.INFECTED, 0, 7).build(),
+                        location("Ontario", "Canada").counts(PatientType.INFECTED, 0, 4).build()));
+
+        final LocationPage second = LocationQueryService.getPage(refreshed, PatientType.INFECTED,
+                LocationSortKey.NAME, null, first.getNextCursor(), 2);
+
+        assertEquals(List.of("Alberta", "Ontario"), names(first));
+        assertEquals(List.of("Quebec"), names(second));
+        assertEquals(2, second.getVersion());
+    }
+
+    @Test
+    void filtersByRegion() {
+        final LocationPage first = LocationQueryService.getPage(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, "Canada", null, 2);
+        final LocationPage second = LocationQueryService.getPage(snapshot, PatientType.INFECTED,
+                LocationSortKey.LATEST_COUNT, "Canada", first.getNextCursor(), 2);
+
+        assertEquals(List.of("Alberta", "Quebec"), names(first));
+        assertEquals(List.of("Ontario"), names(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> LocationQueryService.getPage(snapshot,
+                PatientType.INFECTED, LocationSortKey.NAME, null, "not a cursor", 2));
+        assertThrows(IllegalArgumentException.class, () -> LocationQueryService.getPage(snapshot,
+                PatientType.INFECTED, LocationSortKey.NAME, null, null, LocationQueryService.MAX_PAGE_SIZE + 1));
+    }
+
+    private static List<String> names(final LocationPage page) {
+        final List<String> names = new ArrayList<>();
+        for (final LocationCounts location : page.getLocations())
+            names.add(location.getState().isEmpty() ? location.getRegion() : location.getState());
+        return names;
+    }
+
+}
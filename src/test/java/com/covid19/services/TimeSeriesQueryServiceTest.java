@@ -0,0 +1,74 @@
+package com.covid19.services;
+
+import static com.covid19.models.LocationStatsBuilder.location;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DatasetSnapshot;
+import com.covid19.models.DayCounts;
+import com.covid19.models.LocationTimeSeries;
+import com.covid19.models.MovingAverageSeries;
+import com.covid19.models.PatientType;
+
+class TimeSeriesQueryServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 22);
+
+    private final DatasetSnapshot snapshot = DatasetSnapshot.of(1,
+            List.of(location("", "India").counts(PatientType.INFECTED, 1, 3, 5, 8).build(),
+                    location("Quebec", "Canada").counts(PatientType.INFECTED, 2, 2, 4, 9).build()),
+            Map.of(PatientType.INFECTED, FIRST_DAY));
+
+    @Test
+    void readsLocationCountsBetweenDays() {
+        final LocationTimeSeries series = TimeSeriesQueryService.getLocationSeries(snapshot, PatientType.INFECTED,
+                "", "India", FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2));
+
+        assertArrayEquals(new int[] { 3, 5 }, series.getCounts());
+        assertEquals(FIRST_DAY.plusDays(1), series.getFirstDay());
+        assertEquals(FIRST_DAY.plusDays(2), series.getLastDay());
+    }
+
+    @Test
+    void clampsRangeToDaysOfSeries() {
+        final LocationTimeSeries series = TimeSeriesQueryService.getLocationSeries(snapshot, PatientType.INFECTED,
+                "Quebec", "Canada", FIRST_DAY.minusDays(10), null);
+
+        assertArrayEquals(new int[] { 2, 2, 4, 9 }, series.getCounts());
+        assertEquals(0, TimeSeriesQueryService.getLocationSeries(snapshot, PatientType.INFECTED, "Quebec", "Canada",
+                FIRST_DAY.plusDays(10), null).getCounts().length);
+        assertEquals(0, TimeSeriesQueryService.getLocationSeries(snapshot, PatientType.DEAD, "Quebec", "Canada",
+                null, null).getCounts().length);
+        assertNull(TimeSeriesQueryService.getLocationSeries(snapshot, PatientType.INFECTED, "", "Chile", null, null));
+    }
+
+    @Test
+    void averagesNewCasesOverWindow() {
+        final MovingAverageSeries series = TimeSeriesQueryService.getMovingAverages(snapshot, PatientType.INFECTED,
+                "", "India", 2);
+
+        assertArrayEquals(new double[] { 2, 2.5 }, series.getAverages());
+        assertEquals(FIRST_DAY.plusDays(2), series.getFirstDay());
+        assertNull(TimeSeriesQueryService.getMovingAverages(snapshot, PatientType.INFECTED, "", "Chile", 2));
+    }
+
+    @Test
+    void readsAllLocationsOnDay() {
+        final DayCounts counts = TimeSeriesQueryService.getCountsOn(snapshot, PatientType.INFECTED,
+                FIRST_DAY.plusDays(3));
+
+        assertEquals(2, counts.getLocations().size());
+        assertEquals("Canada", counts.getLocations().get(0).getRegion());
+        assertEquals(9, counts.getLocations().get(0).getCount());
+        assertEquals(8, counts.getLocations().get(1).getCount());
+        assertNull(TimeSeriesQueryService.getCountsOn(snapshot, PatientType.INFECTED, FIRST_DAY.plusDays(4)));
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.covid19.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+import com.covid19.models.DailyCounts;
+import com.covid19.models.DeadPatientsStats;
+import com.covid19.models.InfectedPatientsStats;
+import com.covid19.models.LocationKey;
+import com.covid19.models.LocationStats;
+import com.covid19.models.PatientType;
+import com.covid19.models.RecoveredPatientsStats;
+
+class LocationStatsMergerTest {
+
+    private static final String HEADER = "Province/State,Country/Region,Lat,Long,1/22/20,1/23/20,1/24/20";
+
+    private static final String HEADER_WITH_NEW_DAY = HEADER + ",1/25/20";
+
+    private static final String HEADER_WITH_OLD_REVISION = HEADER_WITH_NEW_DAY
+            + ",1/26/20,1/27/20,1/28/20,1/29/20,1/30/20,1/31/20,2/1/20";
+
+    // First of nine stored days revised from 1 to 0, beyond the last seven which are verified, and a new day
+    private static final String ROW_WITH_OLD_REVISION = ",India,20,77,0,0,1,1,1,1,1,1,1,1,2";
+
+    @Test
+    void mergesAllSeriesOfSameLocation() {
+        final LocationStatsMerger merger = new LocationStatsMerger();
+        merger.merge(row(PatientType.INFECTED, false, HEADER, ",India,20,77,0,1,5"));
+        merger.merge(row(PatientType.DEAD, false, HEADER, ",India,20,77,0,0,1"));
+        merger.merge(row(PatientType.RECOVERED, false, HEADER, ",India,20,77,0,0,2"));
+
+        final LocationStatsMergeResult mergeResult = merger.complete();
+
+        assertEquals(1, mergeResult.getMergedStats().size());
+        final LocationStats merged = mergeResult.getMergedStats().get(0);
+        assertEquals(5, merged.getInfectedPatientsStats().getLatestCount());
+        assertEquals(4, merged.getInfectedPatientsStats().getDifferenceSincePreviousDay());
+        assertEquals(1, merged.getDeadPatientsStats().getLatestCount());
+        assertEquals(2, merged.getRecoveredPatientsStats().getLatestCount());
+        assertFalse(mergeResult.hasMissingKeys());
+    }
+
+    @Test
+    void keepsAndReportsLocationsMissingFromSomeSeries() {
+        final LocationStatsMerger merger = new LocationStatsMerger();
+        merger.merge(row(PatientType.INFECTED, false, HEADER, ",India,20,77,0,1,5"));
+        merger.merge(row(PatientType.DEAD, false, HEADER, ",India,20,77,0,0,1"));
+        merger.merge(row(PatientType.DEAD, false, HEADER, "Ontario,Canada,51,-85,0,3,4"));
+
+        final LocationStatsMergeResult mergeResult = merger.complete();
+
+        assertEquals(2, mergeResult.getMergedStats().size());
+        assertTrue(mergeResult.hasMissingKeys());
+        assertEquals(1, mergeResult.getMissingKeys(PatientType.INFECTED).size());
+        assertTrue(mergeResult.getMissingKeys(PatientType.INFECTED).contains(new LocationKey("Ontario", "Canada")));
+        assertEquals(2, mergeResult.getMissingKeys(PatientType.RECOVERED).size());
+
+        final LocationStats ontario = mergeResult.getMergedStats().get(1);
+        assertEquals(4, ontario.getDeadPatientsStats().getLatestCount());
+        assertEquals(0, ontario.getInfectedPatientsStats().getLatestCount());
+        assertEquals(2, ontario.getInfectedPatientsStats().getPastCounts().size());
+    }
+
+    @Test
+    void updatesExistingLocationInPlace() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(0, 1));
+        final InfectedPatientsStats existingInfected = existing.getInfectedPatientsStats();
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.merge(row(PatientType.INFECTED, false, HEADER, ",India,20,77,0,1,5"));
+
+        final LocationStatsMergeResult mergeResult = merger.complete();
+
+        assertSame(existing, mergeResult.getMergedStats().get(0));
+        assertSame(existingInfected, existing.getInfectedPatientsStats());
+        assertEquals(5, existingInfected.getLatestCount());
+        assertEquals(DailyCounts.of(1, 5), existingInfected.getPastCounts());
+    }
+
+    @Test
+    void appendsNewDaysToExistingLocation() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(1, 5));
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.merge(row(PatientType.INFECTED, true, HEADER_WITH_NEW_DAY, ",India,20,77,0,1,5,9"));
+
+        final LocationStatsMergeResult mergeResult = merger.complete();
+
+        final InfectedPatientsStats infected = existing.getInfectedPatientsStats();
+        assertEquals(DailyCounts.of(1, 5, 9), infected.getPastCounts());
+        assertEquals(9, infected.getLatestCount());
+        assertEquals(4, infected.getDifferenceSincePreviousDay());
+        assertTrue(mergeResult.getChangedStats().contains(existing));
+    }
+
+    @Test
+    void rebuildsExistingLocationWhenStoredDaysWereRevised() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(1, 5));
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.merge(row(PatientType.INFECTED, true, HEADER_WITH_NEW_DAY, ",India,20,77,0,2,6,9"));
+
+        merger.complete();
+
+        assertEquals(DailyCounts.of(2, 6, 9), existing.getInfectedPatientsStats().getPastCounts());
+    }
+
+    @Test
+    void appendsDespiteRevisionOlderThanVerifiedDays() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(1, 1, 1, 1, 1, 1, 1, 1, 1));
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.merge(row(PatientType.INFECTED, true, HEADER_WITH_OLD_REVISION, ROW_WITH_OLD_REVISION));
+
+        merger.complete();
+
+        assertEquals(DailyCounts.of(1, 1, 1, 1, 1, 1, 1, 1, 1, 2), existing.getInfectedPatientsStats().getPastCounts());
+    }
+
+    @Test
+    void rebuildsOlderRevisionOnFullRebuild() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(1, 1, 1, 1, 1, 1, 1, 1, 1));
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.merge(row(PatientType.INFECTED, false, HEADER_WITH_OLD_REVISION, ROW_WITH_OLD_REVISION));
+
+        merger.complete();
+
+        assertEquals(DailyCounts.of(0, 1, 1, 1, 1, 1, 1, 1, 1, 2), existing.getInfectedPatientsStats().getPastCounts());
+    }
+
+    @Test
+    void skipsExistingLocationWithoutNewDays() {
+        final LocationStats existing = existingLocationStats(DailyCounts.of(1, 5));
+        final LocationStatsMerger merger = new LocationStatsMerger(Map.of(LocationKey.of(existing), existing), 7);
+        merger.markNotModified(PatientType.DEAD);
+        merger.markNotModified(PatientType.RECOVERED);
+        existing.setPatientsStats(new DeadPatientsStats().initialiseToMatchForEmptyDbRow(2));
+        existing.setPatientsStats(new RecoveredPatientsStats().initialiseToMatchForEmptyDbRow(2));
+        merger.merge(row(PatientType.INFECTED, true, HEADER, ",India,20,77,0,1,5"));
+
+        final LocationStatsMergeResult mergeResult = merger.complete();
+
+        assertEquals(DailyCounts.of(1, 5), existing.getInfectedPatientsStats().getPastCounts());
+        assertTrue(mergeResult.getChangedStats().isEmpty());
+        assertEquals(1, mergeResult.getUnchangedCount());
+    }
+
+    private LocationStats existingLocationStats(final DailyCounts pastCounts) {
+        final InfectedPatientsStats infected = new InfectedPatientsStats();
+        infected.updateCounts(pastCounts);
+        final LocationStats locationStats = new LocationStats();
+        locationStats.setState("");
+        locationStats.setRegion("India");
+        locationStats.setLatitude("20");
+        locationStats.setLongitude("77");
+        locationStats.setPatientsStats(infected);
+        return locationStats;
+    }
+
+    private TimeSeriesRow row(final PatientType patientType, final boolean appendable, final String header,
+            final String line) {
+        try (CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader()
+                .parse(new StringReader(header + "\n" + line))) {
+            final CSVRecord record = records.iterator().next();
+            return new TimeSeriesRow(patientType, record, appendable);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
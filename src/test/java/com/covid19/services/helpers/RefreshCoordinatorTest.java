@@ -0,0 +1,136 @@
+package com.covid19.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshCoordinatorTest {
+
+    private static final int CALLER_COUNT = 8;
+
+    private final CountingHandler covidHandler = new CountingHandler();
+
+    private final RefreshCoordinator coordinator = new RefreshCoordinator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coordinator, "covidHandler", covidHandler);
+        ReflectionTestUtils.setField(coordinator, "retryAfter", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void sharesRefreshInFlight() throws InterruptedException, ExecutionException {
+        final QueuedExecutor executor = new QueuedExecutor();
+        ReflectionTestUtils.setField(coordinator, "taskExecutor", executor);
+        final ExecutorService callers = Executors.newFixedThreadPool(CALLER_COUNT);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<CompletableFuture<RefreshOutcome>>> triggers = new ArrayList<>();
+        for (int i = 0; i < CALLER_COUNT; i++)
+            triggers.add(callers.submit(() -> {
+                start.await();
+                return coordinator.triggerRefresh();
+            }));
+
+        start.countDown();
+        final CompletableFuture<RefreshOutcome> first = triggers.get(0).get();
+        for (final Future<CompletableFuture<RefreshOutcome>> trigger : triggers)
+            assertSame(first, trigger.get());
+        callers.shutdown();
+
+        assertSame(first, coordinator.triggerBackgroundRefresh());
+        assertTrue(coordinator.isRunning());
+        assertEquals(1, executor.tasks.size());
+        executor.runNext();
+        assertEquals(RefreshOutcome.UPDATED, first.join());
+        assertEquals(1, covidHandler.callCount.get());
+        assertEquals(CALLER_COUNT, coordinator.getStatus().getCoalescedCount());
+        assertFalse(coordinator.isRunning());
+    }
+
+    @Test
+    void startsNewRefreshAfterCompletion() {
+        final QueuedExecutor executor = new QueuedExecutor();
+        ReflectionTestUtils.setField(coordinator, "taskExecutor", executor);
+
+        final CompletableFuture<RefreshOutcome> first = coordinator.triggerRefresh();
+        executor.runNext();
+        final CompletableFuture<RefreshOutcome> second = coordinator.triggerRefresh();
+
+        assertNotSame(first, second);
+        assertFalse(second.isDone());
+        executor.runNext();
+        assertEquals(RefreshOutcome.UPDATED, second.join());
+        assertEquals(2, covidHandler.callCount.get());
+        assertEquals(2, coordinator.getStatus().getRefreshCount());
+    }
+
+    @Test
+    void backsOffAfterRejectedRefresh() {
+        ReflectionTestUtils.setField(coordinator, "taskExecutor", (TaskExecutor) task -> {
+            throw new TaskRejectedException("Queue full");
+        });
+
+        final CompletableFuture<RefreshOutcome> rejected = coordinator.triggerRefresh();
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertNull(coordinator.triggerBackgroundRefresh());
+        assertEquals(0, covidHandler.callCount.get());
+    }
+
+    // Runs tasks only when told to, so that tests decide when a refresh ends
+    private static final class QueuedExecutor implements TaskExecutor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(final Runnable task) {
+            tasks.add(task);
+        }
+
+        private void runNext() {
+            tasks.remove().run();
+        }
+
+    }
+
+    private static final class CountingHandler extends CovidDataServiceHandler {
+
+        private final AtomicInteger callCount = new AtomicInteger();
+
+        CountingHandler() {
+            super(new SimpleMeterRegistry());
+        }
+
+        @Override
+        public RefreshOutcome fetchPrepareAndUpdateWholeDb() {
+            callCount.incrementAndGet();
+            return RefreshOutcome.UPDATED;
+        }
+
+    }
+
+}